@@ -0,0 +1,146 @@
+package com.ecommerce.common.event;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Reads the BinaryEventWriter format one field at a time:
+// while (reader.next()) { switch (reader.field()) { case ... -> reader.readX(); default -> reader.skip(); } }
+public class BinaryEventReader {
+
+    // Never written by BinaryEventWriter, skipped so a newer writer may use them
+    static final int FIXED64 = 1;
+    static final int FIXED32 = 5;
+
+    private final byte[] data;
+    private final int limit;
+    private int position;
+    private int tag;
+
+    public BinaryEventReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    private BinaryEventReader(byte[] data, int offset, int limit) {
+        this.data = data;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    // Moves to the next field, false at the end of the message
+    public boolean next() {
+        if (position >= limit) {
+            return false;
+        }
+        long value = readVarint();
+        if (value >>> 3 == 0 || value > Integer.MAX_VALUE) {
+            throw malformed("invalid field tag " + value);
+        }
+        tag = (int) value;
+        return true;
+    }
+
+    public int field() {
+        return tag >>> 3;
+    }
+
+    public long readLong() {
+        expectWireType(BinaryEventWriter.VARINT);
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public int readInt() {
+        return Math.toIntExact(readLong());
+    }
+
+    public String readString() {
+        int length = readLength();
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public BigDecimal readDecimal() {
+        int length = readLength();
+        int end = position + length;
+        long scale = readVarint();
+        if (position >= end) {
+            throw malformed("decimal without a value");
+        }
+        BigInteger unscaled = new BigInteger(data, position, end - position);
+        position = end;
+        return new BigDecimal(unscaled, Math.toIntExact((scale >>> 1) ^ -(scale & 1)));
+    }
+
+    public LocalDateTime readTimestamp() {
+        long micros = readLong();
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    public BinaryEventReader readMessage() {
+        int length = readLength();
+        BinaryEventReader message = new BinaryEventReader(data, position, position + length);
+        position += length;
+        return message;
+    }
+
+    // Field from a newer version of the schema
+    public void skip() {
+        switch (tag & 7) {
+            case BinaryEventWriter.VARINT -> readVarint();
+            case BinaryEventWriter.LENGTH_DELIMITED -> {
+                int length = readLength();
+                position += length;
+            }
+            case FIXED64 -> skipFixed(8);
+            case FIXED32 -> skipFixed(4);
+            default -> throw malformed("unknown wire type " + (tag & 7));
+        }
+    }
+
+    private void skipFixed(int length) {
+        if (length > limit - position) {
+            throw malformed("fixed field past the end of the message");
+        }
+        position += length;
+    }
+
+    private int readLength() {
+        expectWireType(BinaryEventWriter.LENGTH_DELIMITED);
+        long length = readVarint();
+        if (length > limit - position) {
+            throw malformed("length " + length + " past the end of the message");
+        }
+        return (int) length;
+    }
+
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw malformed("truncated varint");
+            }
+            byte b = data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw malformed("varint longer than 10 bytes");
+    }
+
+    private void expectWireType(int wireType) {
+        if ((tag & 7) != wireType) {
+            throw malformed("field " + field() + " has wire type " + (tag & 7) + ", expected " + wireType);
+        }
+    }
+
+    private static IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed binary event: " + reason);
+    }
+}
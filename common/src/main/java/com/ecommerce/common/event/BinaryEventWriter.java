@@ -0,0 +1,117 @@
+package com.ecommerce.common.event;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Protobuf-style wire format: each field is a varint tag (field number, wire type) followed by a
+// zigzag varint or a length-prefixed value, null fields are not written at all.
+// Readers skip field numbers they don't know, so fields can be added without breaking old consumers
+public class BinaryEventWriter {
+
+    static final int VARINT = 0;
+    static final int LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryEventWriter(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    public BinaryEventWriter writeLong(int field, Long value) {
+        if (value != null) {
+            writeTag(field, VARINT);
+            writeVarint(zigzag(value));
+        }
+        return this;
+    }
+
+    public BinaryEventWriter writeInt(int field, Integer value) {
+        return writeLong(field, value == null ? null : value.longValue());
+    }
+
+    public BinaryEventWriter writeString(int field, String value) {
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeTag(field, LENGTH_DELIMITED);
+            writeVarint(bytes.length);
+            writeRaw(bytes, bytes.length);
+        }
+        return this;
+    }
+
+    // Scale, then the unscaled value as two's-complement bytes
+    public BinaryEventWriter writeDecimal(int field, BigDecimal value) {
+        if (value != null) {
+            long scale = zigzag(value.scale());
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeTag(field, LENGTH_DELIMITED);
+            writeVarint(varintSize(scale) + unscaled.length);
+            writeVarint(scale);
+            writeRaw(unscaled, unscaled.length);
+        }
+        return this;
+    }
+
+    // Microseconds since the epoch, the local date-time is read as UTC
+    public BinaryEventWriter writeTimestamp(int field, LocalDateTime value) {
+        if (value != null) {
+            Instant instant = value.toInstant(ZoneOffset.UTC);
+            writeLong(field, instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000);
+        }
+        return this;
+    }
+
+    public BinaryEventWriter writeMessage(int field, BinaryEventWriter message) {
+        writeTag(field, LENGTH_DELIMITED);
+        writeVarint(message.position);
+        writeRaw(message.buffer, message.position);
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void writeTag(int field, int wireType) {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeRaw(byte[] bytes, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, 0, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (position + needed > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + needed));
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
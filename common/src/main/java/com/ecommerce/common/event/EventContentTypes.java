@@ -0,0 +1,21 @@
+package com.ecommerce.common.event;
+
+// Kafka header telling consumers how a record value is encoded. The schema version is part of
+// the content type: a binary schema only gets a new version for changes old readers can't skip
+public final class EventContentTypes {
+
+    public static final String HEADER = "content-type";
+
+    // Unique per event and kept across redeliveries, consumers use it to drop duplicates
+    public static final String EVENT_ID_HEADER = "event-id";
+
+    // Lets consumers skip event types they don't handle without reading the value
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
+    public static final String JSON = "application/json";
+    public static final String ORDER_EVENT_V1 = "application/vnd.ecommerce.order-event.v1";
+    public static final String USER_EVENT_V1 = "application/vnd.ecommerce.user-event.v1";
+
+    private EventContentTypes() {
+    }
+}
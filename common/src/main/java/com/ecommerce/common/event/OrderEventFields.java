@@ -0,0 +1,26 @@
+package com.ecommerce.common.event;
+
+// Binary schema of order events (EventContentTypes.ORDER_EVENT_V1), written by order-service and read
+// by product-service. The field numbers are the schema: never renumber or reuse one, new fields get
+// new numbers. Not sent: message (free text nobody reads), item productName and subtotal
+public final class OrderEventFields {
+
+    public static final int ORDER_ID = 1;
+    public static final int ORDER_NUMBER = 2;
+    public static final int USER_ID = 3;
+    public static final int TOTAL_AMOUNT = 4;
+    public static final int STATUS = 5;
+    public static final int SHIPPING_ADDRESS = 6;
+    public static final int CREATED_AT = 7;
+    public static final int ITEMS = 8;
+    public static final int EVENT_TYPE = 9;
+    public static final int EVENT_TIMESTAMP = 10;
+
+    // Fields of each ITEMS message
+    public static final int ITEM_PRODUCT_ID = 1;
+    public static final int ITEM_QUANTITY = 2;
+    public static final int ITEM_UNIT_PRICE = 3;
+
+    private OrderEventFields() {
+    }
+}
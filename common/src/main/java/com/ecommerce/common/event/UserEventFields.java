@@ -0,0 +1,21 @@
+package com.ecommerce.common.event;
+
+// Binary schema of user events (EventContentTypes.USER_EVENT_V1), written by user-service and read
+// by order-service and product-service. The field numbers are the schema: never renumber or reuse
+// one, new fields get new numbers. Not sent: message (free text nobody reads)
+public final class UserEventFields {
+
+    public static final int USER_ID = 1;
+    public static final int FIRST_NAME = 2;
+    public static final int LAST_NAME = 3;
+    public static final int EMAIL = 4;
+    public static final int PHONE = 5;
+    public static final int ADDRESS = 6;
+    public static final int STATUS = 7;
+    public static final int CREATED_AT = 8;
+    public static final int EVENT_TYPE = 9;
+    public static final int EVENT_TIMESTAMP = 10;
+
+    private UserEventFields() {
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Every Kafka send goes through here: caps the sends waiting for an ack, so a slow broker
+// pushes back on callers (bounded wait) instead of piling records up in the producer buffer,
+// and records per-topic latency and outcome. Registered by KafkaSendGateAutoConfiguration
+@Slf4j
+public class KafkaSendGate {
+
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final Duration acquireTimeout;
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public KafkaSendGate(MeterRegistry meterRegistry, int maxInFlight, Duration acquireTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+        this.acquireTimeout = acquireTimeout;
+        this.waitTimer = Timer.builder("kafka.producer.send.wait")
+                .description("Time a send waited for an in-flight slot")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("kafka.producer.send.rejected")
+                .description("Sends rejected because no in-flight slot freed up in time")
+                .register(meterRegistry);
+        Gauge.builder("kafka.producer.send.in-flight", this, gate -> gate.maxInFlight - gate.permits.availablePermits())
+                .description("Sends waiting for a broker acknowledgement")
+                .register(meterRegistry);
+    }
+
+    public <K, V> CompletableFuture<SendResult<K, V>> send(KafkaTemplate<K, V> template, String topic, K key, V value) {
+        return send(template, new ProducerRecord<>(topic, key, value));
+    }
+
+    public <K, V> CompletableFuture<SendResult<K, V>> send(KafkaTemplate<K, V> template, ProducerRecord<K, V> record) {
+        String topic = record.topic();
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        waitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new IllegalStateException(
+                    "Kafka producer saturated: " + maxInFlight + " sends in flight for longer than " + acquireTimeout));
+        }
+
+        long sendStart = System.nanoTime();
+        CompletableFuture<SendResult<K, V>> future;
+        try {
+            future = template.send(record);
+        } catch (RuntimeException e) {
+            permits.release();
+            record(topic, sendStart, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, ex) -> {
+            permits.release();
+            record(topic, sendStart, ex);
+        });
+    }
+
+    private void record(String topic, long sendStart, Throwable error) {
+        Timer.builder("kafka.producer.send")
+                .description("Time from send to broker acknowledgement")
+                .tag("topic", topic)
+                .tag("outcome", error == null ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+
+@AutoConfiguration
+@ConditionalOnClass({KafkaTemplate.class, MeterRegistry.class})
+public class KafkaSendGateAutoConfiguration {
+
+    @Bean
+    KafkaSendGate kafkaSendGate(MeterRegistry meterRegistry,
+                                @Value("${kafka.producer.max-in-flight-sends:10000}") int maxInFlight,
+                                @Value("${kafka.producer.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new KafkaSendGate(meterRegistry, maxInFlight, acquireTimeout);
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Registered in logback-spring.xml for the async-logging profile: at most maxPerSecond INFO/DEBUG
+// events per logger and second, the rest is dropped and counted in logging.sampled.dropped.
+// WARN and ERROR always pass
+public class SampledLogFilter extends TurboFilter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    // Per logger: second << COUNT_BITS | events logged in that second
+    private final ConcurrentMap<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private int maxPerSecond = 100;
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public void start() {
+        FunctionCounter.builder("logging.sampled.dropped", dropped, AtomicLong::get)
+                .description("INFO and DEBUG events dropped by the per-logger rate limit")
+                .register(Metrics.globalRegistry);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for the isXxxEnabled() checks, those are not log events
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long second = System.currentTimeMillis() / 1000;
+        AtomicLong window = windows.computeIfAbsent(logger.getName(), name -> new AtomicLong());
+        while (true) {
+            long state = window.get();
+            long next = (state >>> COUNT_BITS) == second ? state + 1 : second << COUNT_BITS | 1;
+            if ((next & COUNT_MASK) > maxPerSecond) {
+                dropped.incrementAndGet();
+                return FilterReply.DENY;
+            }
+            if (window.compareAndSet(state, next)) {
+                return FilterReply.NEUTRAL;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.common.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration
+@ConditionalOnClass({MeterRegistry.class, Endpoint.class})
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningAutoConfiguration {
+
+    @Bean
+    VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                                            @Value("${virtual-threads.pinning.threshold:20ms}") String threshold) {
+        // Parsed here, not by the context: "20ms" only converts where Boot's conversion service is set up
+        return new VirtualThreadPinningMonitor(meterRegistry, DurationStyle.detectAndParse(threshold));
+    }
+}
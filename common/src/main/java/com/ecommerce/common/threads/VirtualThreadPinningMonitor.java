@@ -0,0 +1,125 @@
+package com.ecommerce.common.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Registered by VirtualThreadPinningAutoConfiguration, only with spring.threads.virtual.enabled=true on Java 21+.
+// Streams JFR jdk.VirtualThreadPinned events (virtual thread blocked while holding a monitor,
+// e.g. synchronized blocks in Hibernate or the JDBC driver) and reports them at /actuator/pinning
+@Endpoint(id = "pinning")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+
+    // Pins shorter than this are not recorded
+    private final Duration threshold;
+
+    private final Map<String, PinnedSite> sites = new ConcurrentHashMap<>();
+    private RecordingStream recordingStream;
+    private Timer pinnedTimer;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(meterRegistry);
+
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::record);
+        recordingStream.startAsync();
+        running = true;
+        log.info("Virtual thread pinning monitor started, threshold: {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        recordingStream.close();
+        if (!sites.isEmpty()) {
+            log.warn("Virtual thread pinning report: {}", report());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        sites.values().stream()
+                .sorted(Comparator.comparingLong(PinnedSite::totalNanos).reversed())
+                .forEach(site -> report.put(site.frame, Map.of(
+                        "count", site.count.sum(),
+                        "totalMillis", Duration.ofNanos(site.totalNanos()).toMillis(),
+                        "maxMillis", Duration.ofNanos(site.maxNanos).toMillis())));
+        return report;
+    }
+
+    private void record(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        pinnedTimer.record(duration);
+        sites.computeIfAbsent(pinnedFrame(event.getStackTrace()), PinnedSite::new).record(duration);
+    }
+
+    // First frame outside the JDK, i.e. the library or application code holding the monitor
+    private String pinnedFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "jdk";
+    }
+
+    private static final class PinnedSite {
+        private final String frame;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private volatile long maxNanos;
+
+        private PinnedSite(String frame) {
+            this.frame = frame;
+        }
+
+        private void record(Duration duration) {
+            long nanos = duration.toNanos();
+            count.increment();
+            total.add(nanos);
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        private long totalNanos() {
+            return total.sum();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.ecommerce.common.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventFormatTests {
+
+	@Test
+	void readsBackEveryFieldType() {
+		LocalDateTime beforeEpoch = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000);
+		BigDecimal decimal = new BigDecimal("-12345678901234567890.1234");
+		// Initial capacity 1: every write has to grow the buffer
+		byte[] data = new BinaryEventWriter(1)
+				.writeLong(1, Long.MIN_VALUE)
+				.writeLong(2, -1L)
+				.writeInt(3, Integer.MAX_VALUE)
+				.writeString(4, "Grüße 📦")
+				.writeString(5, "")
+				.writeDecimal(6, decimal)
+				.writeDecimal(7, BigDecimal.ZERO)
+				.writeTimestamp(8, beforeEpoch)
+				.writeMessage(9, new BinaryEventWriter(1).writeLong(1, 42L).writeString(2, "nested"))
+				.writeLong(10, Long.MAX_VALUE)
+				.toByteArray();
+
+		BinaryEventReader reader = new BinaryEventReader(data);
+		assertThat(nextField(reader)).isEqualTo(1);
+		assertThat(reader.readLong()).isEqualTo(Long.MIN_VALUE);
+		assertThat(nextField(reader)).isEqualTo(2);
+		assertThat(reader.readLong()).isEqualTo(-1L);
+		assertThat(nextField(reader)).isEqualTo(3);
+		assertThat(reader.readInt()).isEqualTo(Integer.MAX_VALUE);
+		assertThat(nextField(reader)).isEqualTo(4);
+		assertThat(reader.readString()).isEqualTo("Grüße 📦");
+		assertThat(nextField(reader)).isEqualTo(5);
+		assertThat(reader.readString()).isEmpty();
+		assertThat(nextField(reader)).isEqualTo(6);
+		assertThat(reader.readDecimal()).isEqualTo(decimal);
+		assertThat(nextField(reader)).isEqualTo(7);
+		assertThat(reader.readDecimal()).isEqualTo(BigDecimal.ZERO);
+		assertThat(nextField(reader)).isEqualTo(8);
+		assertThat(reader.readTimestamp()).isEqualTo(beforeEpoch);
+		assertThat(nextField(reader)).isEqualTo(9);
+		BinaryEventReader nested = reader.readMessage();
+		assertThat(nextField(nested)).isEqualTo(1);
+		assertThat(nested.readLong()).isEqualTo(42L);
+		assertThat(nextField(nested)).isEqualTo(2);
+		assertThat(nested.readString()).isEqualTo("nested");
+		assertThat(nested.next()).isFalse();
+		assertThat(nextField(reader)).isEqualTo(10);
+		assertThat(reader.readLong()).isEqualTo(Long.MAX_VALUE);
+		assertThat(reader.next()).isFalse();
+	}
+
+	@Test
+	void leavesOutNullFields() {
+		byte[] data = new BinaryEventWriter(8)
+				.writeLong(1, null)
+				.writeInt(2, null)
+				.writeString(3, null)
+				.writeDecimal(4, null)
+				.writeTimestamp(5, null)
+				.toByteArray();
+
+		assertThat(data).isEmpty();
+		assertThat(new BinaryEventReader(data).next()).isFalse();
+	}
+
+	// The bytes on the topics: a change here breaks consumers still running the old code
+	@Test
+	void keepsTheWireFormat() {
+		byte[] data = new BinaryEventWriter(16)
+				.writeLong(1, 150L)
+				.writeString(2, "ab")
+				.writeDecimal(3, new BigDecimal("1.50"))
+				.writeTimestamp(4, LocalDateTime.of(1970, 1, 1, 0, 0, 0, 1_000))
+				.writeMessage(5, new BinaryEventWriter(4).writeInt(1, -2))
+				.toByteArray();
+
+		assertThat(HexFormat.of().formatHex(data)).isEqualTo("08ac02" + "12026162" + "1a03040096" + "2002" + "2a020803");
+	}
+
+	@Test
+	void skipsUnknownFieldsOfEveryWireType() {
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		data.writeBytes(new BinaryEventWriter(8).writeLong(1, 7L).toByteArray());
+		data.writeBytes(new BinaryEventWriter(8).writeLong(20, 123456789L).toByteArray());
+		data.writeBytes(new BinaryEventWriter(8).writeString(21, "from a newer schema").toByteArray());
+		data.writeBytes(new BinaryEventWriter(8).writeMessage(22, new BinaryEventWriter(8).writeLong(1, 1L)).toByteArray());
+		// Field 23 fixed64 and field 24 fixed32, never written by BinaryEventWriter
+		data.writeBytes(HexFormat.of().parseHex("b901" + "0102030405060708" + "c501" + "01020304"));
+		data.writeBytes(new BinaryEventWriter(8).writeString(2, "known").toByteArray());
+
+		Long first = null;
+		String second = null;
+		BinaryEventReader reader = new BinaryEventReader(data.toByteArray());
+		while (reader.next()) {
+			switch (reader.field()) {
+				case 1 -> first = reader.readLong();
+				case 2 -> second = reader.readString();
+				default -> reader.skip();
+			}
+		}
+
+		assertThat(first).isEqualTo(7L);
+		assertThat(second).isEqualTo("known");
+	}
+
+	@Test
+	void rejectsWireTypesItCannotSkip() {
+		// Field 1 with wire type 3 (protobuf start group)
+		BinaryEventReader reader = new BinaryEventReader(new byte[]{0x0b});
+
+		assertThat(reader.next()).isTrue();
+		assertThatThrownBy(reader::skip)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("unknown wire type 3");
+	}
+
+	@Test
+	void rejectsFieldNumberZero() {
+		assertThatThrownBy(() -> new BinaryEventReader(new byte[]{0x00, 0x01}).next())
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("invalid field tag");
+	}
+
+	@Test
+	void rejectsAFieldReadWithTheWrongWireType() {
+		BinaryEventReader reader = new BinaryEventReader(new BinaryEventWriter(8).writeLong(1, 1L).toByteArray());
+
+		assertThat(reader.next()).isTrue();
+		assertThatThrownBy(reader::readString)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("wire type 0");
+	}
+
+	@Test
+	void rejectsTruncatedMessages() {
+		assertMalformed("08ac", "truncated varint");
+		assertMalformed("12056162", "past the end");
+		assertMalformed("1a05040096", "past the end");
+		assertMalformed("b901010203", "past the end");
+		assertMalformed("c50101", "past the end");
+		assertMalformed("2a0508", "past the end");
+		assertMalformed("08ffffffffffffffffffff01", "longer than 10 bytes");
+	}
+
+	@Test
+	void rejectsATruncatedNestedMessage() {
+		// The outer length is right, the nested varint runs past it
+		BinaryEventReader reader = new BinaryEventReader(HexFormat.of().parseHex("2a0108ac"));
+
+		assertThat(reader.next()).isTrue();
+		BinaryEventReader nested = reader.readMessage();
+		assertThat(nested.next()).isTrue();
+		assertThatThrownBy(nested::readLong)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("truncated varint");
+	}
+
+	private static int nextField(BinaryEventReader reader) {
+		assertThat(reader.next()).isTrue();
+		return reader.field();
+	}
+
+	// Reads every field, skipping them all, as a consumer that knows none of them would
+	private static void assertMalformed(String hex, String reason) {
+		BinaryEventReader reader = new BinaryEventReader(HexFormat.of().parseHex(hex));
+		assertThatThrownBy(() -> {
+			while (reader.next()) {
+				reader.skip();
+			}
+		})
+				.as(hex)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Malformed binary event")
+				.hasMessageContaining(reason);
+	}
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.common.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KafkaSendGateTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final KafkaSendGate gate = new KafkaSendGate(meterRegistry, 2, Duration.ofMillis(50));
+
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, String> template = mock(KafkaTemplate.class);
+
+	@Test
+	void rejectsSendsWhileEverySlotWaitsForAnAck() {
+		CompletableFuture<SendResult<String, String>> ack = new CompletableFuture<>();
+		when(template.send(any(ProducerRecord.class))).thenReturn(ack);
+
+		CompletableFuture<SendResult<String, String>> first = gate.send(template, "orders", "1", "a");
+		CompletableFuture<SendResult<String, String>> second = gate.send(template, "orders", "2", "b");
+		CompletableFuture<SendResult<String, String>> third = gate.send(template, "orders", "3", "c");
+
+		assertThat(first).isNotDone();
+		assertThat(second).isNotDone();
+		assertThat(third).isCompletedExceptionally();
+		assertThat(meterRegistry.get("kafka.producer.send.rejected").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("kafka.producer.send.in-flight").gauge().value()).isEqualTo(2);
+
+		// Acks free the slots
+		ack.complete(null);
+		assertThat(meterRegistry.get("kafka.producer.send.in-flight").gauge().value()).isZero();
+		assertThat(gate.send(template, "orders", "4", "d")).isCompleted();
+		assertThat(meterRegistry.get("kafka.producer.send").tag("topic", "orders").tag("outcome", "success")
+				.timer().count()).isEqualTo(3);
+	}
+
+	@Test
+	void aFailedSendFreesItsSlot() {
+		when(template.send(any(ProducerRecord.class)))
+				.thenThrow(new IllegalStateException("producer closed"))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("timeout")));
+
+		assertThat(gate.send(template, "orders", "1", "a")).isCompletedExceptionally();
+		assertThat(gate.send(template, "orders", "2", "b")).isCompletedExceptionally();
+
+		assertThat(meterRegistry.get("kafka.producer.send.in-flight").gauge().value()).isZero();
+		assertThat(meterRegistry.get("kafka.producer.send").tag("outcome", "error").timer().count()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.common.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Order events per second a consumer thread gets through when all it does is log them, i.e. the logging
+// share of the consumer. before: the lines product-service's OrderEventConsumer wrote per ORDER_CREATED
+// event with 2 items (18 at INFO), after: its DEBUG lines (off at INFO) and the counters.
+// appender: sync writes to a file on the consumer thread, async hands over to an AsyncAppender
+// (queue 8192, neverBlock, as in the async-logging profile; a full queue drops events), sampled adds
+// SampledLogFilter at 100 per logger and second
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConsumerLoggingBenchmark {
+
+	private static final long ORDER_ID = 123456L;
+	private static final String ORDER_NUMBER = "ORD-0000ABCDEFGHI";
+
+	@Param({"before", "after"})
+	private String lines;
+
+	@Param({"sync", "async", "sampled"})
+	private String appender;
+
+	private LoggerContext context;
+	private Logger log;
+	private Path file;
+	private Counter applied;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		file = Files.createTempFile("consumer-logging", ".log");
+		context = new LoggerContext();
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+		encoder.start();
+		FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+		fileAppender.setContext(context);
+		fileAppender.setFile(file.toString());
+		fileAppender.setEncoder(encoder);
+		fileAppender.start();
+
+		Appender<ILoggingEvent> root = fileAppender;
+		if (!appender.equals("sync")) {
+			AsyncAppender async = new AsyncAppender();
+			async.setContext(context);
+			async.setQueueSize(8192);
+			async.setNeverBlock(true);
+			async.addAppender(fileAppender);
+			async.start();
+			root = async;
+		}
+		if (appender.equals("sampled")) {
+			SampledLogFilter filter = new SampledLogFilter();
+			filter.setContext(context);
+			filter.setMaxPerSecond(100);
+			filter.start();
+			context.addTurboFilter(filter);
+		}
+		Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+		rootLogger.setLevel(ch.qos.logback.classic.Level.INFO);
+		rootLogger.addAppender(root);
+
+		log = context.getLogger("com.ecommerce.product_service.consumer.OrderEventConsumer");
+		applied = new SimpleMeterRegistry().counter("product.order-events.applied");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		context.stop();
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public void orderCreated() {
+		if (lines.equals("before")) {
+			logBefore();
+		} else {
+			logAfter();
+		}
+	}
+
+	private void logBefore() {
+		log.info("-----------------------------------------");
+		log.info("RECEIVED ORDER EVENT IN PRODUCT SERVICE");
+		log.info("-------------------------------------------");
+		log.info("Event Type: {}", "ORDER_CREATED");
+		log.info("Order ID: {}", ORDER_ID);
+		log.info("Order Number: {}", ORDER_NUMBER);
+		log.info("User ID: {}", 42L);
+		log.info("Total Amount: {}", new BigDecimal("59.97"));
+		log.info("Status: {}", "CONFIRMED");
+		log.info("Number of Items: {}", 2);
+		log.info("Processing ORDER_CREATED");
+		log.info("Reducing inventory for {} products", 2);
+		for (long productId = 100; productId < 102; productId++) {
+			log.info("Product: {} (ID: {}), Reducing by: {}", "Mug", productId, 1);
+			log.info("Stock reduced successfully for product {}", productId);
+		}
+		log.info("Inventory reduction completed");
+		log.info("---------------------------------------------------");
+	}
+
+	private void logAfter() {
+		log.debug("Applied stock changes of {} order events", 1);
+		applied.increment();
+	}
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledLogFilterTests {
+
+	private final LoggerContext context = new LoggerContext();
+	private final Logger logger = context.getLogger("com.ecommerce.Sampled");
+	private final SampledLogFilter filter = new SampledLogFilter();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		// The filter registers its counter in the global registry, as logback creates it
+		Metrics.addRegistry(meterRegistry);
+		logger.setLevel(Level.DEBUG);
+		filter.setMaxPerSecond(3);
+		filter.start();
+		// Start early in a second, the window must not roll over during a test
+		while (System.currentTimeMillis() % 1000 > 500) {
+			Thread.sleep(10);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		Metrics.globalRegistry.find("logging.sampled.dropped").meters().forEach(Metrics.globalRegistry::remove);
+		Metrics.removeRegistry(meterRegistry);
+	}
+
+	@Test
+	void dropsInfoAndDebugOverTheLimitPerLogger() {
+		assertThat(decide(logger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(decide(logger, Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(decide(logger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(decide(logger, Level.INFO)).isEqualTo(FilterReply.DENY);
+		assertThat(decide(logger, Level.DEBUG)).isEqualTo(FilterReply.DENY);
+
+		// Other loggers have their own window
+		assertThat(decide(context.getLogger("com.ecommerce.Other"), Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(meterRegistry.get("logging.sampled.dropped").functionCounter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void warningsAndErrorsAlwaysPass() {
+		for (int i = 0; i < 10; i++) {
+			assertThat(decide(logger, Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+			assertThat(decide(logger, Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+		}
+		assertThat(decide(logger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+	}
+
+	@Test
+	void disabledLevelsAndEnabledChecksDoNotCount() {
+		logger.setLevel(Level.INFO);
+		for (int i = 0; i < 10; i++) {
+			assertThat(decide(logger, Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+			assertThat(filter.decide(null, logger, Level.INFO, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+		}
+		assertThat(decide(logger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(decide(logger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(decide(logger, Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(decide(logger, Level.INFO)).isEqualTo(FilterReply.DENY);
+	}
+
+	private FilterReply decide(Logger logger, Level level) {
+		return filter.decide(null, logger, level, "Message {}", new Object[]{1}, null);
+	}
+}
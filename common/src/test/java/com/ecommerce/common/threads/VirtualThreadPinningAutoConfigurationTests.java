@@ -0,0 +1,63 @@
+package com.ecommerce.common.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class VirtualThreadPinningAutoConfigurationTests {
+
+	private static final Object MONITOR = new Object();
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(VirtualThreadPinningAutoConfiguration.class))
+			.withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+	@Test
+	void noMonitorOnPlatformThreads() {
+		contextRunner.run(context -> assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void monitorsPinningOnVirtualThreads() {
+		contextRunner.withPropertyValues("spring.threads.virtual.enabled=true", "virtual-threads.pinning.threshold=5ms")
+				.run(context -> {
+					assertThat(context).hasSingleBean(VirtualThreadPinningMonitor.class);
+					assertThat(context.getBean(VirtualThreadPinningMonitor.class).isRunning()).isTrue();
+				});
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void reportsTheFrameHoldingTheMonitor() {
+		contextRunner.withPropertyValues("spring.threads.virtual.enabled=true", "virtual-threads.pinning.threshold=5ms")
+				.run(context -> {
+					VirtualThreadPinningMonitor monitor = context.getBean(VirtualThreadPinningMonitor.class);
+					Thread.ofVirtual().start(VirtualThreadPinningAutoConfigurationTests::sleepHoldingMonitor).join();
+
+					// JFR streams its events about once a second
+					await().atMost(Duration.ofSeconds(10)).until(() -> !monitor.report().isEmpty());
+					assertThat(monitor.report().keySet())
+							.anyMatch(frame -> frame.contains(getClass().getSimpleName() + ".sleepHoldingMonitor"));
+				});
+	}
+
+	private static void sleepHoldingMonitor() {
+		synchronized (MONITOR) {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.common.threads;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Time for a burst of concurrent checkouts that each block on a downstream call for blockMillis:
+// on Tomcat's 200 platform threads (before), on virtual threads (after), and on virtual threads that
+// block inside a synchronized block, the way Hibernate and the JDBC driver do. Those pin their
+// carrier thread and fall back to one checkout per core at a time.
+// monitored: with VirtualThreadPinningMonitor recording, to see what the detection costs
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VirtualThreadPinningBenchmark {
+
+	private static final int TOMCAT_MAX_THREADS = 200;
+
+	@Param("1000")
+	private int checkouts;
+
+	@Param("10")
+	private int blockMillis;
+
+	@Param({"false", "true"})
+	private boolean monitored;
+
+	private ExecutorService platformThreads;
+	private ExecutorService virtualThreads;
+	private VirtualThreadPinningMonitor monitor;
+	private Object[] monitors;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		platformThreads = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+		virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+		if (monitored) {
+			monitor = new VirtualThreadPinningMonitor(new SimpleMeterRegistry(), Duration.ofMillis(blockMillis / 2));
+			monitor.start();
+		}
+		// One per checkout, shared with nothing: only pinning slows them down, not contention
+		monitors = new Object[checkouts];
+		for (int i = 0; i < checkouts; i++) {
+			monitors[i] = new Object();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		platformThreads.shutdownNow();
+		virtualThreads.shutdownNow();
+		if (monitor != null) {
+			monitor.stop();
+		}
+	}
+
+	@Benchmark
+	public void platformThreads() throws Exception {
+		runCheckouts(platformThreads, false);
+	}
+
+	@Benchmark
+	public void virtualThreads() throws Exception {
+		runCheckouts(virtualThreads, false);
+	}
+
+	@Benchmark
+	public void virtualThreadsPinned() throws Exception {
+		runCheckouts(virtualThreads, true);
+	}
+
+	private void runCheckouts(ExecutorService executor, boolean holdingMonitor) throws Exception {
+		List<Future<?>> pending = new ArrayList<>(checkouts);
+		for (int i = 0; i < checkouts; i++) {
+			Object lock = monitors[i];
+			pending.add(executor.submit(() -> {
+				if (holdingMonitor) {
+					synchronized (lock) {
+						callDownstream();
+					}
+				} else {
+					callDownstream();
+				}
+				return null;
+			}));
+		}
+		for (Future<?> checkout : pending) {
+			checkout.get();
+		}
+	}
+
+	private void callDownstream() throws InterruptedException {
+		Thread.sleep(blockMillis);
+	}
+}
@@ -1,16 +1,25 @@
 package com.ecommerce.order_service.client;
 
+import com.ecommerce.order_service.config.WebClientConfig;
+import com.ecommerce.order_service.dto.external.ProductAvailabilityResponse;
 import com.ecommerce.order_service.dto.external.ProductResponse;
 import com.ecommerce.order_service.exception.ServiceException;
 import com.ecommerce.order_service.exception.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.RetryRegistry;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -18,17 +27,30 @@ import java.util.Map;
 public class ProductServiceClient {
 
     private final WebClient webClient;
+    // Stock reservations are service-only in product-service, they go out with order-service's own token
+    private final WebClient serviceWebClient;
+    private final io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker;
+    private final io.github.resilience4j.retry.Retry retry;
 
-    public ProductServiceClient(WebClient.Builder webClientBuilder) {
+    public ProductServiceClient(WebClient.Builder webClientBuilder,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                RetryRegistry retryRegistry,
+                                ReactiveOAuth2AuthorizedClientManager serviceAuthorizedClientManager) {
+        this.serviceWebClient = webClientBuilder.clone()
+                .baseUrl("http://PRODUCT-SERVICE")
+                .filter(WebClientConfig.serviceToken(serviceAuthorizedClientManager))
+                .build();
         this.webClient = webClientBuilder
                 .baseUrl("http://PRODUCT-SERVICE")
                 .build();
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("productService");
+        this.retry = retryRegistry.retry("productService");
     }
 
     @CircuitBreaker(name = "productService", fallbackMethod = "getProductByIdFallback")
     @Retry(name = "productService")
     public ProductResponse getProductById(Long productId) {
-        log.info("Fetching product with id: {} from product-service", productId);
+        log.debug("Fetching product with id: {} from product-service", productId);
 
         return webClient.get()
                 .uri("/api/products/{id}", productId)
@@ -44,7 +66,7 @@ public class ProductServiceClient {
     @CircuitBreaker(name = "productService", fallbackMethod = "isInStockFallback")
     @Retry(name = "productService")
     public boolean isInStock(Long productId, int quantity) {
-        log.info("Checking stock for product: {}, quantity: {}", productId, quantity);
+        log.debug("Checking stock for product: {}, quantity: {}", productId, quantity);
 
         Boolean inStock = webClient.get()
                 .uri(uriBuilder -> uriBuilder
@@ -57,10 +79,47 @@ public class ProductServiceClient {
         return Boolean.TRUE.equals(inStock);
     }
 
+    @CircuitBreaker(name = "productService", fallbackMethod = "getProductsByIdsFallback")
+    @Retry(name = "productService")
+    public List<ProductAvailabilityResponse> getProductsByIds(Map<Long, Integer> quantities) {
+        log.debug("Fetching availability for {} products from product-service", quantities.size());
+
+        return fetchProductsByIds(quantities).block();
+    }
+
+    // Non-blocking variant: same circuit breaker and retry as getProductsByIds, applied as Reactor operators
+    public Mono<List<ProductAvailabilityResponse>> getProductsByIdsAsync(Map<Long, Integer> quantities) {
+        return fetchProductsByIds(quantities)
+                .doOnSubscribe(subscription -> log.debug(
+                        "Fetching availability for {} products from product-service", quantities.size()))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorResume(throwable -> Mono.fromCallable(() -> getProductsByIdsFallback(quantities, throwable)));
+    }
+
+    private Mono<List<ProductAvailabilityResponse>> fetchProductsByIds(Map<Long, Integer> quantities) {
+        List<Map<String, Object>> items = quantities.entrySet().stream()
+                .map(entry -> Map.<String, Object>of(
+                        "productId", entry.getKey(),
+                        "quantity", entry.getValue()))
+                .toList();
+
+        return webClient.post()
+                .uri("/api/products/batch")
+                .bodyValue(Map.of("items", items))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, response ->
+                        Mono.error(new ServiceException("Products not found: " + quantities.keySet())))
+                .onStatus(HttpStatusCode::is5xxServerError, response ->
+                        Mono.error(new ServiceException("Product service is unavailable")))
+                .bodyToFlux(ProductAvailabilityResponse.class)
+                .collectList();
+    }
+
     @CircuitBreaker(name = "productService", fallbackMethod = "reduceStockFallback")
     @Retry(name = "productService")
     public void reduceStock(Long productId, int quantity) {
-        log.info("Reducing stock for product: {}, quantity: {}", productId, quantity);
+        log.debug("Reducing stock for product: {}, quantity: {}", productId, quantity);
 
         webClient.put()
                 .uri("/api/products/{id}/reduce-stock", productId)
@@ -72,6 +131,64 @@ public class ProductServiceClient {
                 .block();
     }
 
+    // Holds the stock of every line under the order number until product-service applies the order's
+    // ORDER_CREATED event. false when a product is short or unknown, that is an answer, not a failure
+    // for the circuit breaker. Retries are safe: a number already holding stock holds nothing more
+    @CircuitBreaker(name = "productService", fallbackMethod = "reserveStockFallback")
+    @Retry(name = "productService")
+    public boolean reserveStock(String orderNumber, Map<Long, Integer> quantities) {
+        log.debug("Reserving stock of {} products for order {}", quantities.size(), orderNumber);
+
+        return Boolean.TRUE.equals(postReservation(orderNumber, quantities).block());
+    }
+
+    // Non-blocking variant, same circuit breaker and retry applied as Reactor operators
+    public Mono<Boolean> reserveStockAsync(String orderNumber, Map<Long, Integer> quantities) {
+        return postReservation(orderNumber, quantities)
+                .doOnSubscribe(subscription -> log.debug(
+                        "Reserving stock of {} products for order {}", quantities.size(), orderNumber))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorResume(throwable -> Mono.fromCallable(() -> reserveStockFallback(orderNumber, quantities, throwable)));
+    }
+
+    private Mono<Boolean> postReservation(String orderNumber, Map<Long, Integer> quantities) {
+        List<Map<String, Object>> items = quantities.entrySet().stream()
+                .map(entry -> Map.<String, Object>of(
+                        "productId", entry.getKey(),
+                        "quantity", entry.getValue()))
+                .toList();
+
+        return serviceWebClient.post()
+                .uri("/api/products/reservations")
+                .bodyValue(Map.of("reservationId", orderNumber, "items", items))
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody().thenReturn(true);
+                    }
+                    if (response.statusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)
+                            || response.statusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                        return response.releaseBody().thenReturn(false);
+                    }
+                    return response.<Boolean>releaseBody()
+                            .then(Mono.error(new ServiceException("Product service is unavailable")));
+                });
+    }
+
+    // Best effort: retried with the productService retry (a DELETE, safe to repeat), a hold that is
+    // still not released expires on its own
+    public Mono<Void> releaseStockAsync(String orderNumber) {
+        return serviceWebClient.delete()
+                .uri("/api/products/reservations/{reservationId}", orderNumber)
+                .retrieve()
+                .bodyToMono(Void.class)
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorResume(throwable -> {
+                    log.warn("Could not release stock reservation of order {}: {}", orderNumber, throwable.getMessage());
+                    return Mono.empty();
+                });
+    }
+
     // FALLBACK METHODS
     // Throw ServiceUnavailableException instead of returning default values
 
@@ -87,9 +204,21 @@ public class ProductServiceClient {
         throw new ServiceUnavailableException("Product Service is unavailable. Please try again later.");
     }
 
+    public List<ProductAvailabilityResponse> getProductsByIdsFallback(Map<Long, Integer> quantities, Throwable throwable) {
+        log.error("CIRCUIT BREAKER OPEN: Cannot get products {}. Error: {}",
+                quantities.keySet(), throwable.getMessage());
+        throw new ServiceUnavailableException("Product Service is unavailable. Please try again later.");
+    }
+
+    public boolean reserveStockFallback(String orderNumber, Map<Long, Integer> quantities, Throwable throwable) {
+        log.error("CIRCUIT BREAKER OPEN: Cannot reserve stock for order {}. Error: {}",
+                orderNumber, throwable.getMessage());
+        throw new ServiceUnavailableException("Product Service is unavailable. Please try again later.");
+    }
+
     public void reduceStockFallback(Long productId, int quantity, Throwable throwable) {
         log.error("CIRCUIT BREAKER OPEN: Cannot reduce stock for product {}. Error: {}",
                 productId, throwable.getMessage());
         throw new ServiceUnavailableException("Product Service is unavailable. Please try again later.");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -3,7 +3,11 @@ package com.ecommerce.order_service.client;
 import com.ecommerce.order_service.dto.external.UserResponse;
 import com.ecommerce.order_service.exception.ServiceException;
 import com.ecommerce.order_service.exception.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.RetryRegistry;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatusCode;
@@ -16,17 +20,23 @@ import reactor.core.publisher.Mono;
 public class UserServiceClient {
 
     private final WebClient webClient;
+    private final io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker;
+    private final io.github.resilience4j.retry.Retry retry;
 
-    public UserServiceClient(WebClient.Builder webClientBuilder) {
+    public UserServiceClient(WebClient.Builder webClientBuilder,
+                             CircuitBreakerRegistry circuitBreakerRegistry,
+                             RetryRegistry retryRegistry) {
         this.webClient = webClientBuilder
                 .baseUrl("http://USER-SERVICE")
                 .build();
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("userService");
+        this.retry = retryRegistry.retry("userService");
     }
 
     @CircuitBreaker(name = "userService", fallbackMethod = "getUserByIdFallback")
     @Retry(name = "userService")
     public UserResponse getUserById(Long userId) {
-        log.info("Fetching user with id: {} from user-service", userId);
+        log.debug("Fetching user with id: {} from user-service", userId);
 
         return webClient.get()
                 .uri("/api/users/{id}", userId)
@@ -42,7 +52,7 @@ public class UserServiceClient {
     @CircuitBreaker(name = "userService", fallbackMethod = "userExistsFallback")
     @Retry(name = "userService")
     public boolean userExists(Long userId) {
-        log.info("Checking if user exists: {}", userId);
+        log.debug("Checking if user exists: {}", userId);
 
         Boolean exists = webClient.get()
                 .uri("/api/users/{id}/exists", userId)
@@ -52,6 +62,20 @@ public class UserServiceClient {
         return Boolean.TRUE.equals(exists);
     }
 
+    // Non-blocking variant: same circuit breaker and retry as userExists, applied as Reactor operators
+    public Mono<Boolean> userExistsAsync(Long userId) {
+        return webClient.get()
+                .uri("/api/users/{id}/exists", userId)
+                .retrieve()
+                .bodyToMono(Boolean.class)
+                .map(Boolean.TRUE::equals)
+                .defaultIfEmpty(false)
+                .doOnSubscribe(subscription -> log.debug("Checking if user exists: {}", userId))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorResume(throwable -> Mono.fromCallable(() -> userExistsFallback(userId, throwable)));
+    }
+
     public UserResponse getUserByIdFallback(Long userId, Throwable throwable) {
         log.error("CIRCUIT BREAKER OPEN: Cannot get user {}. Error: {}",
                 userId, throwable.getMessage());
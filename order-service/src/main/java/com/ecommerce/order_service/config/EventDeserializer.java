@@ -0,0 +1,58 @@
+package com.ecommerce.order_service.config;
+
+import com.ecommerce.common.event.EventContentTypes;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+
+// Follows the content-type header: binary values go to the decoder registered for their content type,
+// JSON values and values without the header (written before the header existed) to Jackson.
+// Both encodings can sit on a topic while producers move over
+public class EventDeserializer<T> implements Deserializer<T> {
+
+    private final JsonDeserializer<T> jsonDeserializer;
+    private final Map<String, Function<byte[], T>> binaryDecoders;
+
+    public EventDeserializer(Class<? super T> jsonType, Map<String, Function<byte[], T>> binaryDecoders) {
+        this.jsonDeserializer = new JsonDeserializer<>(jsonType, false);
+        this.binaryDecoders = binaryDecoders;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        Header header = headers.lastHeader(EventContentTypes.HEADER);
+        if (data == null || header == null) {
+            return jsonDeserializer.deserialize(topic, headers, data);
+        }
+        String contentType = new String(header.value(), StandardCharsets.UTF_8);
+        if (EventContentTypes.JSON.equals(contentType)) {
+            return jsonDeserializer.deserialize(topic, headers, data);
+        }
+
+        Function<byte[], T> decoder = binaryDecoders.get(contentType);
+        if (decoder == null) {
+            throw new SerializationException("Unsupported content type " + contentType + " on " + topic);
+        }
+        try {
+            return decoder.apply(data);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot decode " + contentType + " record from " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.order_service.config;
+
+import com.ecommerce.common.event.EventContentTypes;
+import com.ecommerce.order_service.event.ProductEvent;
+import com.ecommerce.order_service.event.UserEvent;
+import com.ecommerce.order_service.event.UserEventCodec;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+
+@EnableKafka
+@Configuration
+public class KafkaConsumerConfig {
+
+    // Idle events drive the "caught up" signal of the local projections
+    private static final long PROJECTION_IDLE_INTERVAL_MS = 5000L;
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:29092}")
+    private String bootstrapServers;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${order.projections.instance-id:}")
+    private String configuredInstanceId;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    private final ObjectProvider<Registration> registration;
+
+    public KafkaConsumerConfig(ObjectProvider<Registration> registration) {
+        this.registration = registration;
+    }
+
+    @Bean
+    public ConsumerFactory<String, UserEvent> userEventConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(projectionConsumerConfig("order-service-user-projection-"),
+                new StringDeserializer(),
+                new EventDeserializer<>(UserEvent.class, Map.of(EventContentTypes.USER_EVENT_V1, UserEventCodec::decode)));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEvent> userEventListenerContainerFactory() {
+        return projectionListenerFactory(userEventConsumerFactory());
+    }
+
+    @Bean
+    public ConsumerFactory<String, ProductEvent> productEventConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(projectionConsumerConfig("order-service-catalog-replica-"),
+                new StringDeserializer(), new EventDeserializer<>(ProductEvent.class, Map.of()));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductEvent> productEventListenerContainerFactory() {
+        return projectionListenerFactory(productEventConsumerFactory());
+    }
+
+    // Every instance keeps its own copy of a projection, so every instance needs every event: one group
+    // per instance, the same across restarts (no group left behind by each restart). The projections are
+    // in memory, their consumers seek to the beginning on every assignment instead of resuming
+    private Map<String, Object> projectionConsumerConfig(String groupPrefix) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupPrefix + instanceId());
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return config;
+    }
+
+    // order.projections.instance-id, else the Eureka instance id (host:name:port), else host:port
+    private String instanceId() {
+        if (!configuredInstanceId.isBlank()) {
+            return configuredInstanceId;
+        }
+        Registration instance = registration.getIfAvailable();
+        if (instance != null && instance.getInstanceId() != null) {
+            return instance.getInstanceId();
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName() + ":" + serverPort;
+        } catch (UnknownHostException e) {
+            return "localhost:" + serverPort;
+        }
+    }
+
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> projectionListenerFactory(
+            ConsumerFactory<String, T> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        // First idle event after the replay tells the projection it has caught up
+        factory.getContainerProperties().setIdleEventInterval(PROJECTION_IDLE_INTERVAL_MS);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+        return factory;
+    }
+}
@@ -1,17 +1,30 @@
 package com.ecommerce.order_service.config;
 
+import io.micrometer.observation.ObservationRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.InMemoryReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
@@ -20,9 +33,11 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 public class WebClientConfig {
 
+    public static final String SERVICE_CLIENT = "order-service";
+
     @Bean
     @LoadBalanced
-    public WebClient.Builder webClientBuilder() {
+    public WebClient.Builder webClientBuilder(ObservationRegistry observationRegistry) {
         HttpClient httpClient = HttpClient.create()
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3000)
                 .responseTimeout(Duration.ofSeconds(3))
@@ -30,23 +45,66 @@ public class WebClientConfig {
                         .addHandlerLast(new ReadTimeoutHandler(3, TimeUnit.SECONDS))
                         .addHandlerLast(new WriteTimeoutHandler(3, TimeUnit.SECONDS))
                 );
+        // Boot's http.client.requests metrics (per uri, status, outcome) instead of a log line per call
         return WebClient.builder()
+                .observationRegistry(observationRegistry)
                 .clientConnector(new ReactorClientHttpConnector(httpClient)).filter(addJwtToken());
     }
 
+    // Order-service's own token (client credentials, realm role SERVICE) for endpoints other services
+    // only take from a service, e.g. product-service stock reservations. Cached until it expires
+    @Bean
+    public ReactiveOAuth2AuthorizedClientManager serviceAuthorizedClientManager(
+            @Value("${order.service-client.token-uri:http://localhost:8180/realms/ecommerce/protocol/openid-connect/token}") String tokenUri,
+            @Value("${order.service-client.client-id:order-service}") String clientId,
+            @Value("${order.service-client.client-secret:}") String clientSecret,
+            @Value("${order.stock-reservation.enabled:true}") boolean stockReservationEnabled) {
+        // Reservations are the only calls made with this token: without a secret every order would fail
+        // on its reservation, the instance doesn't start instead
+        if (stockReservationEnabled && clientSecret.isBlank()) {
+            throw new IllegalStateException("order.service-client.client-secret is required with "
+                    + "order.stock-reservation.enabled=true (set the secret, or turn reservations off)");
+        }
+        ClientRegistration registration = ClientRegistration.withRegistrationId(SERVICE_CLIENT)
+                .clientId(clientId)
+                .clientSecret(clientSecret)
+                .tokenUri(tokenUri)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .build();
+        ReactiveClientRegistrationRepository registrations = new InMemoryReactiveClientRegistrationRepository(registration);
+        return new AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager(
+                registrations, new InMemoryReactiveOAuth2AuthorizedClientService(registrations));
+    }
+
+    // Replaces the propagated caller token with the service token. One principal for every call, so
+    // the token is shared and not fetched per customer
+    public static ExchangeFilterFunction serviceToken(ReactiveOAuth2AuthorizedClientManager authorizedClientManager) {
+        OAuth2AuthorizeRequest authorizeRequest = OAuth2AuthorizeRequest.withClientRegistrationId(SERVICE_CLIENT)
+                .principal(SERVICE_CLIENT)
+                .build();
+        return ExchangeFilterFunction.ofRequestProcessor(clientRequest ->
+                authorizedClientManager.authorize(authorizeRequest)
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException("No service token for " + SERVICE_CLIENT)))
+                        .map(authorizedClient -> ClientRequest.from(clientRequest)
+                                .headers(headers -> headers.setBearerAuth(authorizedClient.getAccessToken().getTokenValue()))
+                                .build()));
+    }
+
     //Filter to propagate JWT token to downstream services
+    //Reads the Reactor context first, so calls that hop threads keep the token,
+    //and falls back to the ThreadLocal for plain blocking calls
     private ExchangeFilterFunction addJwtToken(){
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            var authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication instanceof JwtAuthenticationToken jwtAuth){
-                String token = jwtAuth.getToken().getTokenValue();
-
-                ClientRequest newRequest = ClientRequest.from(clientRequest)
-                        .header("Authorization", "Bearer " + token).build();
-
-                return reactor.core.publisher.Mono.just(newRequest);
-            }
-            return reactor.core.publisher.Mono.just(clientRequest);
-        });
+        return ExchangeFilterFunction.ofRequestProcessor(clientRequest ->
+                ReactiveSecurityContextHolder.getContext()
+                        .switchIfEmpty(Mono.fromSupplier(SecurityContextHolder::getContext))
+                        .mapNotNull(SecurityContext::getAuthentication)
+                        .filter(JwtAuthenticationToken.class::isInstance)
+                        .map(authentication -> {
+                            String token = ((JwtAuthenticationToken) authentication).getToken().getTokenValue();
+
+                            return ClientRequest.from(clientRequest)
+                                    .header("Authorization", "Bearer " + token).build();
+                        })
+                        .defaultIfEmpty(clientRequest));
     }
 }
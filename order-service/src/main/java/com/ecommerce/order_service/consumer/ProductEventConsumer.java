@@ -0,0 +1,48 @@
+package com.ecommerce.order_service.consumer;
+
+import com.ecommerce.order_service.event.ProductEvent;
+import com.ecommerce.order_service.service.CatalogReplicaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEventConsumer extends AbstractConsumerSeekAware {
+
+    private static final String LISTENER_ID = "catalogReplica";
+
+    private final CatalogReplicaService catalogReplicaService;
+
+    // The listener id is not the group id: each instance has its own group (KafkaConsumerConfig)
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = "product-events",
+            containerFactory = "productEventListenerContainerFactory",
+            autoStartup = "${order.catalog-replica.enabled:true}")
+    public void consumeProductEvent(ProductEvent event, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
+        log.debug("Product event {} for product {}", event.getEventType(), event.getProductId());
+        catalogReplicaService.apply(event, timestamp);
+    }
+
+    // The projection lives in memory: replay the whole topic whenever partitions are assigned
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    // No records for a whole idle interval: the replica has caught up with the topic
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        catalogReplicaService.markCaughtUp();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.order_service.consumer;
+
+import com.ecommerce.order_service.event.UserEvent;
+import com.ecommerce.order_service.service.UserProjectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserEventConsumer extends AbstractConsumerSeekAware {
+
+    private static final String LISTENER_ID = "userProjection";
+
+    private final UserProjectionService userProjectionService;
+
+    // The listener id is not the group id: each instance has its own group (KafkaConsumerConfig)
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = "user-events",
+            containerFactory = "userEventListenerContainerFactory",
+            autoStartup = "${order.user-projection.enabled:true}")
+    public void consumeUserEvent(UserEvent event) {
+        log.debug("User event {} for user {}", event.getEventType(), event.getUserId());
+        userProjectionService.apply(event);
+    }
+
+    // The projection lives in memory: replay the whole topic whenever partitions are assigned
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    // No records for a whole idle interval: the replay of the topic is done
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        userProjectionService.markReady();
+    }
+}
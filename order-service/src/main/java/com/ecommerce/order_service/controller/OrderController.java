@@ -1,23 +1,27 @@
 package com.ecommerce.order_service.controller;
 
+import com.ecommerce.order_service.dto.CursorPage;
+import com.ecommerce.order_service.dto.OrderHistoryResponse;
 import com.ecommerce.order_service.dto.OrderRequest;
 import com.ecommerce.order_service.dto.OrderResponse;
 import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.service.OrderHistoryService;
 import com.ecommerce.order_service.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderHistoryService orderHistoryService;
 
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
@@ -40,15 +44,36 @@ public class OrderController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByUser(
-            @PathVariable Long userId) {
-        List<OrderResponse> orders = orderService.getOrdersByUserId(userId);
+    public ResponseEntity<CursorPage<OrderResponse>> getOrdersByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<OrderResponse> orders = orderService.getOrdersByUserId(userId, after, size);
         return ResponseEntity.ok(orders);
     }
 
+    // "My orders" summary, one primary key read of the read model
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<OrderHistoryResponse> getOrderHistory(@PathVariable Long userId) {
+        OrderHistoryResponse response = orderHistoryService.getHistory(userId);
+        return ResponseEntity.ok(response);
+    }
+
+    // Rebuilds the read model from the orders table: one user, or every user when userId is missing
+    @PostMapping("/history/rebuild")
+    public ResponseEntity<Integer> rebuildOrderHistory(@RequestParam(required = false) Long userId) {
+        if (userId != null) {
+            orderHistoryService.rebuild(userId);
+            return ResponseEntity.ok(1);
+        }
+        return ResponseEntity.ok(orderHistoryService.rebuildAll());
+    }
+
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        List<OrderResponse> orders = orderService.getAllOrders();
+    public ResponseEntity<CursorPage<OrderResponse>> getAllOrders(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<OrderResponse> orders = orderService.getAllOrders(after, size);
         return ResponseEntity.ok(orders);
     }
 
@@ -0,0 +1,65 @@
+package com.ecommerce.order_service.controller;
+
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.service.OrderExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+// Bulk export for reporting jobs, one order per line (NDJSON)
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/orders/export")
+@RequiredArgsConstructor
+public class OrderExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    // Far enough for "no bound" and still a valid PostgreSQL timestamp
+    private static final LocalDateTime NO_LOWER_BOUND = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime NO_UPPER_BOUND = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final OrderExportService orderExportService;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Set<Order.OrderStatus> status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LocalDateTime fromTime = from != null ? from : NO_LOWER_BOUND;
+        LocalDateTime toTime = to != null ? to : NO_UPPER_BOUND;
+        Set<Order.OrderStatus> statuses = status == null || status.isEmpty()
+                ? EnumSet.allOf(Order.OrderStatus.class) : status;
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                orderExportService.exportOrders(fromTime, toTime, statuses, gzipOut);
+                gzipOut.finish();
+            } else {
+                orderExportService.exportOrders(fromTime, toTime, statuses, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.order_service.controller;
+
+import com.ecommerce.order_service.dto.CursorPage;
+import com.ecommerce.order_service.dto.OrderHistoryResponse;
+import com.ecommerce.order_service.dto.OrderRequest;
+import com.ecommerce.order_service.dto.OrderResponse;
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.service.ReactiveOrderHistoryService;
+import com.ecommerce.order_service.service.ReactiveOrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+// Same API as OrderController, served by WebFlux in the reactive profile
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService orderService;
+    private final ReactiveOrderHistoryService orderHistoryService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<OrderResponse> createOrder(
+            @Valid @RequestBody OrderRequest request) {
+        return orderService.createOrder(request);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<OrderResponse> getOrderById(@PathVariable Long id) {
+        return orderService.getOrderById(id);
+    }
+
+    @GetMapping("/number/{orderNumber}")
+    public Mono<OrderResponse> getOrderByNumber(
+            @PathVariable String orderNumber) {
+        return orderService.getOrderByNumber(orderNumber);
+    }
+
+    @GetMapping("/user/{userId}")
+    public Mono<CursorPage<OrderResponse>> getOrdersByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        return orderService.getOrdersByUserId(userId, after, size);
+    }
+
+    // "My orders" summary, one primary key read of the read model
+    @GetMapping("/user/{userId}/history")
+    public Mono<OrderHistoryResponse> getOrderHistory(@PathVariable Long userId) {
+        return orderHistoryService.getHistory(userId);
+    }
+
+    @GetMapping
+    public Mono<CursorPage<OrderResponse>> getAllOrders(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        return orderService.getAllOrders(after, size);
+    }
+
+    @PatchMapping("/{id}/status")
+    public Mono<OrderResponse> updateOrderStatus(
+            @PathVariable Long id,
+            @RequestParam Order.OrderStatus status) {
+        return orderService.updateOrderStatus(id, status);
+    }
+
+    @PostMapping("/{id}/cancel")
+    public Mono<OrderResponse> cancelOrder(@PathVariable Long id) {
+        return orderService.cancelOrder(id);
+    }
+
+    @GetMapping("/user/{userId}/has-active")
+    public Mono<Boolean> hasActiveOrders(@PathVariable Long userId) {
+        return orderService.hasActiveOrders(userId);
+    }
+
+    @GetMapping("/product/{productId}/has-active")
+    public Mono<Boolean> hasActiveOrdersForProduct(@PathVariable Long productId) {
+        return orderService.hasActiveOrdersForProduct(productId);
+    }
+}
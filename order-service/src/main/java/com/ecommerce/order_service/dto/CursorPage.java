@@ -0,0 +1,37 @@
+package com.ecommerce.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset (cursor) listing, ordered by id.
+// Pass nextCursor as "after" to get the next page, null means this was the last one
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int MAX_SIZE = 100;
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public static int pageSize(int requestedSize) {
+        return Math.min(Math.max(requestedSize, 1), MAX_SIZE);
+    }
+
+    public static long startAfter(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    // Rows were fetched with pageSize + 1: the extra row only tells that there is a next page
+    public static <E, T> CursorPage<T> of(List<E> rows, int pageSize, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> page = hasMore ? rows.subList(0, pageSize) : rows;
+        return new CursorPage<>(page.stream().map(mapper).toList(),
+                hasMore ? idOf.apply(page.get(pageSize - 1)) : null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.order_service.dto;
+
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.UserOrderHistory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryResponse {
+
+    private Long userId;
+    private Map<Order.OrderStatus, Integer> statusCounts;
+    private BigDecimal lifetimeSpend;
+    private List<UserOrderHistory.OrderEntry> recentOrders;
+    private LocalDateTime updatedAt;
+
+    public static OrderHistoryResponse fromEntity(UserOrderHistory history) {
+        return OrderHistoryResponse.builder()
+                .userId(history.getUserId())
+                .statusCounts(history.getStatusCounts())
+                .lifetimeSpend(history.getLifetimeSpend())
+                .recentOrders(history.getRecentOrders())
+                .updatedAt(history.getUpdatedAt())
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.order_service.dto;
 
 import com.ecommerce.order_service.entity.OrderItem;
+import com.ecommerce.order_service.entity.ReactiveOrderItem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -31,4 +32,15 @@ public class OrderItemResponse {
                 .subtotal(item.getSubtotal())
                 .build();
     }
+
+    public static OrderItemResponse fromEntity(ReactiveOrderItem item) {
+        return OrderItemResponse.builder()
+                .id(item.getId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .quantity(item.getQuantity())
+                .unitPrice(item.getUnitPrice())
+                .subtotal(item.getSubtotal())
+                .build();
+    }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.ecommerce.order_service.dto;
 
 import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.OrderItem;
+import com.ecommerce.order_service.entity.ReactiveOrder;
+import com.ecommerce.order_service.entity.ReactiveOrderItem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +11,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Data
@@ -39,4 +43,35 @@ public class OrderResponse {
                 .createdAt(order.getCreatedAt())
                 .build();
     }
+
+    // Items loaded separately, order.getItems() is not touched
+    public static OrderResponse fromEntity(Order order, Collection<OrderItem> items) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .items(items.stream()
+                        .map(OrderItemResponse::fromEntity)
+                        .toList())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .shippingAddress(order.getShippingAddress())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    public static OrderResponse fromEntity(ReactiveOrder order, Collection<ReactiveOrderItem> items) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .items(items.stream()
+                        .map(OrderItemResponse::fromEntity)
+                        .toList())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .shippingAddress(order.getShippingAddress())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
 }
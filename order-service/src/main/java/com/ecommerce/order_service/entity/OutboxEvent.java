@@ -0,0 +1,52 @@
+package com.ecommerce.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Event waiting to be relayed to Kafka, written in the same transaction as the order change
+@Entity
+@Table(name = "outbox_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    // Sequence, not IDENTITY: an IDENTITY insert would be executed on persist, ahead of the order batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq",
+            allocationSize = Order.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false)
+    private String messageKey;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    // Sent as the event-id header, the same on every relay attempt
+    @Column(nullable = false)
+    private UUID eventId;
+
+    // Encoded event (JSON or binary, see contentType), sent as is
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
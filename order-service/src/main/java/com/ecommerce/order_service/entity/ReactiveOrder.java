@@ -0,0 +1,37 @@
+package com.ecommerce.order_service.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// R2DBC mapping of the same "orders" table used by Order (reactive profile only)
+@Table("orders")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactiveOrder {
+
+    @Id
+    private Long id;
+
+    private String orderNumber;
+
+    private Long userId;
+
+    private BigDecimal totalAmount;
+
+    private Order.OrderStatus status;
+
+    private String shippingAddress;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
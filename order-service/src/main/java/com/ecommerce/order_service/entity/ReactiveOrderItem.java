@@ -0,0 +1,34 @@
+package com.ecommerce.order_service.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+
+// R2DBC mapping of the same "order_items" table used by OrderItem (reactive profile only)
+@Table("order_items")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactiveOrderItem {
+
+    @Id
+    private Long id;
+
+    private Long orderId;
+
+    private Long productId;
+
+    private String productName;
+
+    private Integer quantity;
+
+    private BigDecimal unitPrice;
+
+    private BigDecimal subtotal;
+}
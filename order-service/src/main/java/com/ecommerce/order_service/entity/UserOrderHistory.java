@@ -0,0 +1,103 @@
+package com.ecommerce.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read model behind "my orders": one row per user, kept up to date in the transaction
+// that changes the user's orders, rebuildable from the orders table
+@Entity
+@Table(name = "user_order_history")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderHistory {
+
+    // Older orders are still available through the paged /api/orders/user/{userId}
+    public static final int MAX_RECENT_ORDERS = 50;
+
+    @Id
+    private Long userId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    @Builder.Default
+    private Map<Order.OrderStatus, Integer> statusCounts = new HashMap<>();
+
+    // Total of the orders that are not cancelled
+    @Column(nullable = false)
+    @Builder.Default
+    private BigDecimal lifetimeSpend = BigDecimal.ZERO;
+
+    // Newest first, at most MAX_RECENT_ORDERS entries
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    @Builder.Default
+    private List<OrderEntry> recentOrders = new ArrayList<>();
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // The incremental updates, the same for OrderHistoryService (JPA) and ReactiveOrderHistoryService (R2DBC)
+    public void orderCreated(OrderEntry order) {
+        Map<Order.OrderStatus, Integer> counts = new EnumMap<>(Order.OrderStatus.class);
+        counts.putAll(statusCounts);
+        counts.merge(order.getStatus(), 1, Integer::sum);
+        statusCounts = counts;
+
+        if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+            lifetimeSpend = lifetimeSpend.add(order.getTotalAmount());
+        }
+
+        List<OrderEntry> recent = new ArrayList<>(MAX_RECENT_ORDERS + 1);
+        recent.add(order);
+        recent.addAll(recentOrders);
+        recentOrders = recent.size() > MAX_RECENT_ORDERS ? recent.subList(0, MAX_RECENT_ORDERS) : recent;
+    }
+
+    public void orderStatusChanged(OrderEntry order, Order.OrderStatus previousStatus) {
+        Map<Order.OrderStatus, Integer> counts = new EnumMap<>(Order.OrderStatus.class);
+        counts.putAll(statusCounts);
+        counts.merge(previousStatus, -1, Integer::sum);
+        counts.merge(order.getStatus(), 1, Integer::sum);
+        counts.values().removeIf(count -> count <= 0);
+        statusCounts = counts;
+
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            lifetimeSpend = lifetimeSpend.subtract(order.getTotalAmount());
+        } else if (previousStatus == Order.OrderStatus.CANCELLED) {
+            lifetimeSpend = lifetimeSpend.add(order.getTotalAmount());
+        }
+
+        recentOrders = recentOrders.stream()
+                .map(entry -> entry.getId().equals(order.getId()) ? order : entry)
+                .toList();
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderEntry {
+        private Long id;
+        private String orderNumber;
+        private Order.OrderStatus status;
+        private BigDecimal totalAmount;
+        private Integer itemCount;
+        private LocalDateTime createdAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.order_service.event;
+
+import com.ecommerce.common.event.BinaryEventWriter;
+
+import static com.ecommerce.common.event.OrderEventFields.*;
+
+// Writes order events in the binary schema of OrderEventFields (EventContentTypes.ORDER_EVENT_V1)
+public final class OrderEventCodec {
+
+    private OrderEventCodec() {
+    }
+
+    public static byte[] encode(OrderEvent event) {
+        BinaryEventWriter writer = new BinaryEventWriter(128)
+                .writeLong(ORDER_ID, event.getOrderId())
+                .writeString(ORDER_NUMBER, event.getOrderNumber())
+                .writeLong(USER_ID, event.getUserId())
+                .writeDecimal(TOTAL_AMOUNT, event.getTotalAmount())
+                .writeString(STATUS, event.getStatus())
+                .writeString(SHIPPING_ADDRESS, event.getShippingAddress())
+                .writeTimestamp(CREATED_AT, event.getCreatedAt());
+        if (event.getItems() != null) {
+            for (OrderEvent.OrderItemDTO item : event.getItems()) {
+                writer.writeMessage(ITEMS, new BinaryEventWriter(16)
+                        .writeLong(ITEM_PRODUCT_ID, item.getProductId())
+                        .writeInt(ITEM_QUANTITY, item.getQuantity())
+                        .writeDecimal(ITEM_UNIT_PRICE, item.getUnitPrice()));
+            }
+        }
+        return writer
+                .writeString(EVENT_TYPE, event.getEventType())
+                .writeTimestamp(EVENT_TIMESTAMP, event.getEventTimestamp())
+                .toByteArray();
+    }
+}
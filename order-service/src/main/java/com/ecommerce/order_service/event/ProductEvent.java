@@ -0,0 +1,25 @@
+package com.ecommerce.order_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Fields of product-service's ProductEvent that the catalog replica needs
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductEvent {
+
+    private Long productId;
+    private String name;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String status;
+
+    // Event metadata
+    private String eventType; // PRODUCT_CREATED, PRODUCT_UPDATED, PRODUCT_DELETED, STOCK_CHANGED
+    private LocalDateTime eventTimestamp;
+}
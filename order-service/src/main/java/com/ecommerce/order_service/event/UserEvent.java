@@ -0,0 +1,18 @@
+package com.ecommerce.order_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fields of user-service's UserEvent that order-service needs
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEvent {
+
+    private Long userId;
+    private String status;
+
+    // Event metadata
+    private String eventType; // USER_CREATED, USER_UPDATED, USER_DELETED
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.order_service.event;
+
+import com.ecommerce.common.event.BinaryEventReader;
+
+import static com.ecommerce.common.event.UserEventFields.*;
+
+// Reads user-service's binary user events (UserEventFields, EventContentTypes.USER_EVENT_V1).
+// Fields order-service doesn't need are skipped
+public final class UserEventCodec {
+
+    private UserEventCodec() {
+    }
+
+    public static UserEvent decode(byte[] data) {
+        UserEvent event = new UserEvent();
+        BinaryEventReader reader = new BinaryEventReader(data);
+        while (reader.next()) {
+            switch (reader.field()) {
+                case USER_ID -> event.setUserId(reader.readLong());
+                case STATUS -> event.setStatus(reader.readString());
+                case EVENT_TYPE -> event.setEventType(reader.readString());
+                default -> reader.skip();
+            }
+        }
+        return event;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    List<OrderItem> findByOrderIdIn(Collection<Long> orderIds);
+}
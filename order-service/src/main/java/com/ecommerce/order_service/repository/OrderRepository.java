@@ -1,18 +1,93 @@
 package com.ecommerce.order_service.repository;
 
 import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.UserOrderHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    // Read paths: order and items in one query (LEFT JOIN FETCH)
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsByOrderNumber(String orderNumber);
+
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdInOrderByIdAsc(Collection<Long> ids);
+
     List<Order> findByUserId(Long userId);
 
+    // Order history rebuild: two queries per user, no entities and no item rows loaded
+
+    interface StatusTotals {
+        Order.OrderStatus getStatus();
+        long getOrders();
+        BigDecimal getTotalAmount();
+    }
+
+    @Query("SELECT o.status AS status, count(o) AS orders, sum(o.totalAmount) AS totalAmount " +
+            "FROM Order o WHERE o.userId = :userId GROUP BY o.status")
+    List<StatusTotals> findStatusTotalsByUserId(@Param("userId") Long userId);
+
+    // idx_orders_user_id_id, item counts as a subquery per returned order
+    @Query("SELECT new com.ecommerce.order_service.entity.UserOrderHistory$OrderEntry(" +
+            "o.id, o.orderNumber, o.status, o.totalAmount, size(o.items), o.createdAt) " +
+            "FROM Order o WHERE o.userId = :userId ORDER BY o.id DESC")
+    List<UserOrderHistory.OrderEntry> findRecentEntriesByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT DISTINCT o.userId FROM Order o")
+    List<Long> findDistinctUserIds();
+
     List<Order> findByStatus(Order.OrderStatus status);
+
+    // Export: rows come from an open cursor 500 at a time, read-only so Hibernate keeps no snapshots
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to " +
+            "AND o.status IN :statuses ORDER BY o.id")
+    Stream<Order> streamForExport(@Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to,
+                                  @Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    // Keyset pages select ids only: a LIMIT next to a collection fetch would be applied in memory,
+    // the orders of the page are then loaded with findWithItemsByIdInOrderByIdAsc
+
+    // Primary key index
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Long> findIdPage(@Param("afterId") Long afterId, Limit limit);
+
+    // idx_orders_user_id_id
+    @Query("SELECT o.id FROM Order o WHERE o.userId = :userId AND o.id > :afterId ORDER BY o.id")
+    List<Long> findIdPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    // Statuses are literals, not parameters, so the planner can use the partial idx_orders_active_user_id
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM orders " +
+            "WHERE user_id = :userId AND status NOT IN ('CANCELLED', 'DELIVERED'))", nativeQuery = true)
+    boolean existsActiveByUserId(@Param("userId") Long userId);
+
+    // idx_order_items_product_id, then orders by primary key
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM order_items i JOIN orders o ON o.id = i.order_id " +
+            "WHERE i.product_id = :productId AND o.status NOT IN ('CANCELLED', 'DELIVERED'))", nativeQuery = true)
+    boolean existsActiveByProductId(@Param("productId") Long productId);
 }
\ No newline at end of file
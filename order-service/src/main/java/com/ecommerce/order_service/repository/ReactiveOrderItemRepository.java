@@ -0,0 +1,22 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.entity.ReactiveOrderItem;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveOrderItemRepository extends R2dbcRepository<ReactiveOrderItem, Long> {
+
+    Flux<ReactiveOrderItem> findByOrderId(Long orderId);
+
+    Flux<ReactiveOrderItem> findByOrderIdIn(Collection<Long> orderIds);
+
+    // Same pooled sequence as the JPA OrderItem entity, one value per row as in ReactiveOrderRepository.nextId.
+    // All of an order's ids in one round trip
+    @Query("SELECT nextval('order_items_seq') FROM generate_series(1, :count)")
+    Flux<Long> nextIds(int count);
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.entity.ReactiveOrder;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveOrderRepository extends R2dbcRepository<ReactiveOrder, Long> {
+
+    Mono<ReactiveOrder> findByOrderNumber(String orderNumber);
+
+    Flux<ReactiveOrder> findByUserId(Long userId);
+
+    // Keyset pages, same indexes as the JPA side
+    @Query("SELECT * FROM orders WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<ReactiveOrder> findPage(Long afterId, int limit);
+
+    @Query("SELECT * FROM orders WHERE user_id = :userId AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<ReactiveOrder> findPageByUserId(Long userId, Long afterId, int limit);
+
+    // Same pooled sequence as the JPA Order entity, one value per row. A value V stands for the block
+    // (V - 50, V] Hibernate's pooled optimizer takes when it gets V: no JPA instance gets this one, so V
+    // is free. The rest of the block stays unused
+    @Query("SELECT nextval('orders_seq')")
+    Mono<Long> nextId();
+
+    @Query("SELECT EXISTS (SELECT 1 FROM orders " +
+            "WHERE user_id = :userId AND status NOT IN ('CANCELLED', 'DELIVERED'))")
+    Mono<Boolean> existsActiveByUserId(Long userId);
+
+    @Query("SELECT EXISTS (SELECT 1 FROM order_items i JOIN orders o ON o.id = i.order_id " +
+            "WHERE i.product_id = :productId AND o.status NOT IN ('CANCELLED', 'DELIVERED'))")
+    Mono<Boolean> existsActiveByProductId(Long productId);
+}
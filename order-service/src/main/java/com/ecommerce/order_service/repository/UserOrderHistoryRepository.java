@@ -0,0 +1,30 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.entity.UserOrderHistory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserOrderHistoryRepository extends JpaRepository<UserOrderHistory, Long> {
+
+    // Also run by ReactiveOrderHistoryService
+    String CREATE_IF_MISSING = "INSERT INTO user_order_history (user_id, status_counts, lifetime_spend, recent_orders, updated_at) " +
+            "VALUES (:userId, '{}', 0, '[]', now()) ON CONFLICT (user_id) DO NOTHING";
+
+    // Two first orders of the same user may race here, only one row gets created. 1 when it was this one
+    @Modifying
+    @Query(value = CREATE_IF_MISSING, nativeQuery = true)
+    int createIfMissing(@Param("userId") Long userId);
+
+    // Row lock: concurrent changes to the same user's orders are applied one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM UserOrderHistory h WHERE h.userId = :userId")
+    Optional<UserOrderHistory> findForUpdate(@Param("userId") Long userId);
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.dto.external.ProductAvailabilityResponse;
+import com.ecommerce.order_service.event.ProductEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Local copy of the product catalog built from the product-events topic,
+// so order creation can price a cart without calling product-service
+@Service
+@Slf4j
+public class CatalogReplicaService {
+
+    private record CatalogEntry(Long id, String name, BigDecimal price, String status, int stockQuantity) {
+    }
+
+    private final Map<Long, CatalogEntry> products = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Duration maxLag;
+    private final Duration maxSilence;
+    private final Timer lagTimer;
+
+    private volatile boolean ready;
+    // Delay between product-service publishing the last event and the replica applying it
+    private volatile long lastLagMillis;
+    // Last sign of life from the consumer: an event or an idle notification
+    private volatile long lastHeartbeatMillis = System.currentTimeMillis();
+
+    public CatalogReplicaService(MeterRegistry meterRegistry,
+                                 @Value("${order.catalog-replica.enabled:true}") boolean enabled,
+                                 @Value("${order.catalog-replica.max-lag:5s}") Duration maxLag,
+                                 @Value("${order.catalog-replica.max-silence:30s}") Duration maxSilence) {
+        this.enabled = enabled;
+        this.maxLag = maxLag;
+        this.maxSilence = maxSilence;
+        this.lagTimer = Timer.builder("order.catalog.replica.lag")
+                .description("Delay between a product change and the replica applying it")
+                .register(meterRegistry);
+        Gauge.builder("order.catalog.replica.size", products, Map::size)
+                .description("Products known to the local catalog replica")
+                .register(meterRegistry);
+        Gauge.builder("order.catalog.replica.silence", this, replica -> replica.silenceMillis() / 1000.0)
+                .description("Seconds since the catalog consumer was last heard from")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // publishedAtMillis: the Kafka record timestamp (epoch millis, set by the producer when sending).
+    // The event's own eventTimestamp is a LocalDateTime in product-service's time zone
+    public void apply(ProductEvent event, long publishedAtMillis) {
+        if (event.getProductId() == null || event.getEventType() == null) {
+            return;
+        }
+        switch (event.getEventType()) {
+            case "PRODUCT_CREATED", "PRODUCT_UPDATED", "STOCK_CHANGED" -> products.put(event.getProductId(),
+                    new CatalogEntry(event.getProductId(), event.getName(), event.getPrice(),
+                            event.getStatus(), event.getStockQuantity() == null ? 0 : event.getStockQuantity()));
+            case "PRODUCT_DELETED" -> products.remove(event.getProductId());
+            default -> log.debug("Ignoring product event type: {}", event.getEventType());
+        }
+
+        long now = System.currentTimeMillis();
+        lastHeartbeatMillis = now;
+        // Clamped: the producer's clock can be slightly ahead of this one
+        long lag = Math.max(0, now - publishedAtMillis);
+        lastLagMillis = lag;
+        lagTimer.record(Duration.ofMillis(lag));
+    }
+
+    // Nothing left to consume: whatever was behind has been applied
+    public void markCaughtUp() {
+        lastHeartbeatMillis = System.currentTimeMillis();
+        lastLagMillis = 0;
+        if (!ready) {
+            ready = true;
+            log.info("Catalog replica caught up with {} products", products.size());
+        }
+    }
+
+    // Replica prices for the whole cart, empty when the replica is stale or misses a product,
+    // in which case the caller has to ask product-service
+    public Optional<List<ProductAvailabilityResponse>> lookup(Map<Long, Integer> quantities) {
+        if (!isFresh()) {
+            return Optional.empty();
+        }
+        List<ProductAvailabilityResponse> result = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> item : quantities.entrySet()) {
+            CatalogEntry entry = products.get(item.getKey());
+            if (entry == null) {
+                return Optional.empty();
+            }
+            result.add(new ProductAvailabilityResponse(entry.id(), entry.name(), entry.price(),
+                    entry.stockQuantity(), entry.status(), item.getValue(),
+                    entry.stockQuantity() >= item.getValue()));
+        }
+        return Optional.of(result);
+    }
+
+    public boolean isFresh() {
+        return enabled && ready
+                && lastLagMillis <= maxLag.toMillis()
+                && silenceMillis() <= maxSilence.toMillis();
+    }
+
+    private long silenceMillis() {
+        return System.currentTimeMillis() - lastHeartbeatMillis;
+    }
+}
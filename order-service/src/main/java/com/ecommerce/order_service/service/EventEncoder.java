@@ -0,0 +1,55 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.common.event.EventContentTypes;
+import com.ecommerce.order_service.event.OrderEvent;
+import com.ecommerce.order_service.event.OrderEventCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// Encodes order events in the format set by kafka.events.encoding (json or binary).
+// Switch to binary only once every consumer of order-events reads the content-type header
+@Component
+public class EventEncoder {
+
+    public record EncodedEvent(byte[] payload, String contentType) {
+    }
+
+    // Same mapper as the Kafka JsonSerializer, JSON consumers get the same JSON as before
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private final boolean binary;
+
+    public EventEncoder(@Value("${kafka.events.encoding:json}") String encoding) {
+        this.binary = switch (encoding) {
+            case "binary" -> true;
+            case "json" -> false;
+            default -> throw new IllegalStateException("kafka.events.encoding must be json or binary, was " + encoding);
+        };
+    }
+
+    public EncodedEvent encode(OrderEvent event) {
+        if (binary) {
+            return new EncodedEvent(OrderEventCodec.encode(event), EventContentTypes.ORDER_EVENT_V1);
+        }
+        try {
+            return new EncodedEvent(objectMapper.writeValueAsBytes(event), EventContentTypes.JSON);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getEventType() + " event", e);
+        }
+    }
+
+    public static ProducerRecord<String, byte[]> toRecord(String topic, String key, UUID eventId, String eventType,
+                                                          byte[] payload, String contentType) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, payload);
+        record.headers().add(EventContentTypes.HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(EventContentTypes.EVENT_ID_HEADER, eventId.toString().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(EventContentTypes.EVENT_TYPE_HEADER, eventType.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
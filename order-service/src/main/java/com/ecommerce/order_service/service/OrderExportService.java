@@ -0,0 +1,85 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.dto.OrderResponse;
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.OrderItem;
+import com.ecommerce.order_service.repository.OrderItemRepository;
+import com.ecommerce.order_service.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Writes orders as NDJSON while reading them, memory use does not depend on the number of orders
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+
+    // Orders written per round: one items query and one persistence context clear per chunk
+    private static final int CHUNK_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDateTime from, LocalDateTime to,
+                             Collection<Order.OrderStatus> statuses, OutputStream out) throws IOException {
+        log.info("Exporting orders created from {} to {} with status {}", from, to, statuses);
+
+        long count = 0;
+        try (Stream<Order> orders = orderRepository.streamForExport(from, to, statuses);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            List<Order> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (Order order : (Iterable<Order>) orders::iterator) {
+                chunk.add(order);
+                if (chunk.size() == CHUNK_SIZE) {
+                    count += writeChunk(chunk, generator);
+                }
+            }
+            count += writeChunk(chunk, generator);
+        }
+
+        log.info("Exported {} orders", count);
+        return count;
+    }
+
+    private int writeChunk(List<Order> chunk, JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<OrderItem>> itemsByOrder = orderItemRepository
+                .findByOrderIdIn(chunk.stream().map(Order::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+
+        for (Order order : chunk) {
+            generator.writeObject(OrderResponse.fromEntity(order, itemsByOrder.getOrDefault(order.getId(), List.of())));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+
+        int written = chunk.size();
+        // Written orders and items are not needed anymore, let them be collected
+        chunk.clear();
+        entityManager.clear();
+        return written;
+    }
+}
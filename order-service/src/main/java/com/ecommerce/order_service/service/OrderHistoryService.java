@@ -0,0 +1,127 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.dto.OrderHistoryResponse;
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.UserOrderHistory;
+import com.ecommerce.order_service.repository.OrderRepository;
+import com.ecommerce.order_service.repository.UserOrderHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Profile("!reactive")
+@Slf4j
+public class OrderHistoryService {
+
+    private final UserOrderHistoryRepository historyRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate rebuildOnReadTransaction;
+
+    public OrderHistoryService(UserOrderHistoryRepository historyRepository, OrderRepository orderRepository,
+                               TransactionTemplate transactionTemplate) {
+        this.historyRepository = historyRepository;
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildOnReadTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.rebuildOnReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Read-only. A row missing for a user whose orders predate the read model is built on first read,
+    // in a transaction of its own: the read-only one can't insert it
+    @Transactional(readOnly = true)
+    public OrderHistoryResponse getHistory(Long userId) {
+        return historyRepository.findById(userId)
+                .map(OrderHistoryResponse::fromEntity)
+                .orElseGet(() -> rebuildOnReadTransaction.execute(status -> OrderHistoryResponse.fromEntity(rebuild(userId))));
+    }
+
+    // Called in the transaction that creates the order, so both commit or neither does
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        if (builtFromOrders(order.getUserId())) {
+            return;
+        }
+        lockHistory(order.getUserId()).orderCreated(toEntry(order));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusChanged(Order order, Order.OrderStatus previousStatus) {
+        if (order.getStatus() == previousStatus) {
+            return;
+        }
+        if (builtFromOrders(order.getUserId())) {
+            return;
+        }
+        lockHistory(order.getUserId()).orderStatusChanged(toEntry(order), previousStatus);
+    }
+
+    // Recomputes one user's row from the orders table, under the same row lock as the incremental updates.
+    // Totals per status and the recent orders with their item counts, two queries whatever the order count
+    @Transactional
+    public UserOrderHistory rebuild(Long userId) {
+        historyRepository.createIfMissing(userId);
+        UserOrderHistory history = lockHistory(userId);
+
+        Map<Order.OrderStatus, Integer> counts = new EnumMap<>(Order.OrderStatus.class);
+        BigDecimal spend = BigDecimal.ZERO;
+        long orders = 0;
+        for (OrderRepository.StatusTotals totals : orderRepository.findStatusTotalsByUserId(userId)) {
+            counts.put(totals.getStatus(), Math.toIntExact(totals.getOrders()));
+            orders += totals.getOrders();
+            if (totals.getStatus() != Order.OrderStatus.CANCELLED) {
+                spend = spend.add(totals.getTotalAmount());
+            }
+        }
+
+        history.setStatusCounts(counts);
+        history.setLifetimeSpend(spend);
+        history.setRecentOrders(orderRepository.findRecentEntriesByUserId(userId, Limit.of(UserOrderHistory.MAX_RECENT_ORDERS)));
+        log.info("Rebuilt order history of user {} from {} orders", userId, orders);
+        return history;
+    }
+
+    // One transaction per user, so the rows of the other users stay writable meanwhile
+    public int rebuildAll() {
+        List<Long> userIds = orderRepository.findDistinctUserIds();
+        userIds.forEach(userId -> transactionTemplate.executeWithoutResult(status -> rebuild(userId)));
+        return userIds.size();
+    }
+
+    // A user without a row has orders from before the read model (or none): the new row is built from
+    // the orders table, the current transaction's change included, instead of applying it to an empty row
+    private boolean builtFromOrders(Long userId) {
+        if (historyRepository.createIfMissing(userId) == 0) {
+            return false;
+        }
+        rebuild(userId);
+        return true;
+    }
+
+    private UserOrderHistory lockHistory(Long userId) {
+        return historyRepository.findForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Order history row missing for user " + userId));
+    }
+
+    private UserOrderHistory.OrderEntry toEntry(Order order) {
+        return UserOrderHistory.OrderEntry.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .itemCount(order.getItems().size())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+}
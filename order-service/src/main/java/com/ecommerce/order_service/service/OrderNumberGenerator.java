@@ -0,0 +1,92 @@
+package com.ecommerce.order_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Shared by the blocking and reactive order services.
+// Snowflake layout: 41 bits milliseconds since EPOCH | 10 bits worker id | 12 bits sequence,
+// written in base 36 so numbers stay short ("ORD-" + 13 chars) and sort in creation order
+@Component
+@Slf4j
+public class OrderNumberGenerator {
+
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int WORKER_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int NUMBER_LENGTH = 13; // Long.MAX_VALUE in base 36
+
+    private final long workerId;
+    private final LongSupplier clock;
+
+    // timestamp << SEQUENCE_BITS | sequence of the last number handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public OrderNumberGenerator(@Value("${order.number.worker-id:-1}") long configuredWorkerId,
+                                @Value("${order.number.derive-worker-id:false}") boolean deriveWorkerId,
+                                ObjectProvider<Registration> registration) {
+        this(resolveWorkerId(configuredWorkerId, deriveWorkerId, registration.getIfAvailable()),
+                System::currentTimeMillis);
+    }
+
+    OrderNumberGenerator(long workerId, LongSupplier clock) {
+        this.workerId = workerId;
+        this.clock = clock;
+        log.info("Order number worker id: {}", workerId);
+    }
+
+    public String generate() {
+        String number = Long.toString(nextId(), Character.MAX_RADIX).toUpperCase();
+        return "ORD-" + "0".repeat(NUMBER_LENGTH - number.length()) + number;
+    }
+
+    private long nextId() {
+        while (true) {
+            long last = lastState.get();
+            long now = clock.getAsLong() - EPOCH;
+            // Same millisecond or clock moved back: next sequence number. When the sequence
+            // overflows it carries into the timestamp, borrowing the next millisecond
+            long next = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (WORKER_BITS + SEQUENCE_BITS))
+                        | (workerId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // Every instance needs its own order.number.worker-id: two instances with the same id hand out
+    // the same numbers. Deriving it from the Eureka instance id is only allowed when asked for
+    // (dev profile), two instance ids can hash to the same worker
+    static long resolveWorkerId(long configuredWorkerId, boolean deriveWorkerId, Registration registration) {
+        if (configuredWorkerId >= 0) {
+            if (configuredWorkerId > MAX_WORKER_ID) {
+                throw new IllegalStateException("order.number.worker-id must be between 0 and " + MAX_WORKER_ID);
+            }
+            return configuredWorkerId;
+        }
+        if (!deriveWorkerId) {
+            throw new IllegalStateException("order.number.worker-id is not set: give each instance its own id "
+                    + "between 0 and " + MAX_WORKER_ID + ", or run with the dev profile to derive it");
+        }
+        if (registration != null && registration.getInstanceId() != null) {
+            long derived = Math.floorMod(registration.getInstanceId().hashCode(), MAX_WORKER_ID + 1);
+            log.warn("No order.number.worker-id, DERIVED worker id {} from instance id {}. Other instances can "
+                    + "derive the same id and hand out duplicate order numbers", derived, registration.getInstanceId());
+            return derived;
+        }
+        log.warn("No order.number.worker-id and no service registration, using worker id 0. Other instances "
+                + "can use the same id and hand out duplicate order numbers");
+        return 0;
+    }
+}
@@ -1,11 +1,10 @@
 package com.ecommerce.order_service.service;
 
-import com.ecommerce.order_service.client.ProductServiceClient;
-import com.ecommerce.order_service.client.UserServiceClient;
+import com.ecommerce.order_service.dto.CursorPage;
 import com.ecommerce.order_service.dto.OrderItemRequest;
 import com.ecommerce.order_service.dto.OrderRequest;
 import com.ecommerce.order_service.dto.OrderResponse;
-import com.ecommerce.order_service.dto.external.ProductResponse;
+import com.ecommerce.order_service.dto.external.ProductAvailabilityResponse;
 import com.ecommerce.order_service.entity.Order;
 import com.ecommerce.order_service.entity.OrderItem;
 import com.ecommerce.order_service.event.OrderEvent;
@@ -13,55 +12,52 @@ import com.ecommerce.order_service.exception.OrderNotFoundException;
 import com.ecommerce.order_service.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final UserServiceClient userServiceClient;
-    private final ProductServiceClient productServiceClient;
-    private final KafkaProducerService kafkaProducerService;
+    private final OrderValidationService orderValidationService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OutboxService outboxService;
+    private final OrderHistoryService orderHistoryService;
+    private final StockReservationService stockReservationService;
 
     public OrderResponse createOrder(OrderRequest request) {
-        log.info("Creating order for user: {}", request.getUserId());
+        // 1-2. Validate user exists, validate products and check stock
+        Map<Long, ProductAvailabilityResponse> products = orderValidationService.validateOrder(request);
 
-        // 1. Validate user exists
-        if (!userServiceClient.userExists(request.getUserId())) {
-            throw new IllegalArgumentException("User not found: " + request.getUserId());
-        }
-
-        // 2. Validate products and check stock
-        for (OrderItemRequest item : request.getItems()) {
-            if (!productServiceClient.isInStock(item.getProductId(), item.getQuantity())) {
-                throw new IllegalArgumentException(
-                        "Product not in stock: " + item.getProductId());
-            }
-        }
+        // 3. Hold the stock until product-service applies ORDER_CREATED (released on rollback)
+        String orderNumber = orderNumberGenerator.generate();
+        stockReservationService.reserve(orderNumber, request);
 
-        // 3. Create order
+        // 4. Create order
         Order order = Order.builder()
-                .orderNumber(generateOrderNumber())
+                .orderNumber(orderNumber)
                 .userId(request.getUserId())
                 .shippingAddress(request.getShippingAddress())
-                .status(Order.OrderStatus.PENDING)
+                .status(Order.OrderStatus.CONFIRMED)
                 .build();
 
-        // 4. Add order items and calculate total
+        // 5. Add order items and calculate total
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (OrderItemRequest itemRequest : request.getItems()) {
-            ProductResponse product = productServiceClient.getProductById(itemRequest.getProductId());
+            ProductAvailabilityResponse product = products.get(itemRequest.getProductId());
 
             BigDecimal subtotal = product.getPrice()
                     .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
@@ -80,11 +76,13 @@ public class OrderService {
 
         order.setTotalAmount(totalAmount);
 
-        // 5. Save order
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created with number: {}", savedOrder.getOrderNumber());
+        // 6. Save order: order and items go out in one batched flush
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        log.info("Order {} created: user={} items={} total={}", savedOrder.getOrderNumber(),
+                savedOrder.getUserId(), savedOrder.getItems().size(), savedOrder.getTotalAmount());
+        orderHistoryService.orderCreated(savedOrder);
 
-        // Publish event to Kafka
+        // Publish event to Kafka (through the outbox, relayed after commit)
         OrderEvent event = OrderEvent.builder()
                 .orderId(savedOrder.getId())
                 .orderNumber(savedOrder.getOrderNumber())
@@ -107,25 +105,21 @@ public class OrderService {
                 .eventTimestamp(LocalDateTime.now())
                 .build();
 
-        kafkaProducerService.sendOrderEvent(event);
+        outboxService.enqueueOrderEvent(event);
 
-        // 6. Reduce stock by webclient(send direct to product service
+        // 7. Reduce stock by webclient(send direct to product service
         //for (OrderItemRequest item : request.getItems()) {
         //    productServiceClient.reduceStock(item.getProductId(), item.getQuantity());
         //}
 
-        // 7. Update order status to CONFIRMED
-        savedOrder.setStatus(Order.OrderStatus.CONFIRMED);
-        savedOrder = orderRepository.save(savedOrder);
-
         return OrderResponse.fromEntity(savedOrder);
     }
 
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
-        log.info("Fetching order with id: {}", id);
+        log.debug("Fetching order with id: {}", id);
 
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
 
         return OrderResponse.fromEntity(order);
@@ -133,9 +127,9 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderResponse getOrderByNumber(String orderNumber) {
-        log.info("Fetching order with number: {}", orderNumber);
+        log.debug("Fetching order with number: {}", orderNumber);
 
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        Order order = orderRepository.findWithItemsByOrderNumber(orderNumber)
                 .orElseThrow(() -> new OrderNotFoundException(
                         "Order not found with number: " + orderNumber));
 
@@ -143,33 +137,47 @@ public class OrderService {
     }
 
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByUserId(Long userId) {
-        log.info("Fetching orders for user: {}", userId);
+    public CursorPage<OrderResponse> getOrdersByUserId(Long userId, Long after, int size) {
+        log.debug("Fetching orders for user: {} after id: {}", userId, after);
 
-        return orderRepository.findByUserId(userId)
-                .stream()
-                .map(OrderResponse::fromEntity)
-                .toList();
+        int pageSize = CursorPage.pageSize(size);
+        List<Long> ids = orderRepository.findIdPageByUserId(
+                userId, CursorPage.startAfter(after), Limit.of(pageSize + 1));
+        return toPage(ids, pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<OrderResponse> getAllOrders() {
-        log.info("Fetching all orders");
+    public CursorPage<OrderResponse> getAllOrders(Long after, int size) {
+        log.debug("Fetching orders after id: {}", after);
 
-        return orderRepository.findAll()
+        int pageSize = CursorPage.pageSize(size);
+        List<Long> ids = orderRepository.findIdPage(CursorPage.startAfter(after), Limit.of(pageSize + 1));
+        return toPage(ids, pageSize);
+    }
+
+    // Second phase of a page: the orders of the page ids with their items, one query
+    private CursorPage<OrderResponse> toPage(List<Long> ids, int pageSize) {
+        CursorPage<Long> page = CursorPage.of(ids, pageSize, id -> id, id -> id);
+        if (page.getItems().isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        List<OrderResponse> orders = orderRepository.findWithItemsByIdInOrderByIdAsc(page.getItems())
                 .stream()
                 .map(OrderResponse::fromEntity)
                 .toList();
+        return new CursorPage<>(orders, page.getNextCursor());
     }
 
     public OrderResponse updateOrderStatus(Long id, Order.OrderStatus status) {
         log.info("Updating order {} status to {}", id, status);
 
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
+        orderHistoryService.orderStatusChanged(updatedOrder, previousStatus);
 
         return OrderResponse.fromEntity(updatedOrder);
     }
@@ -177,7 +185,7 @@ public class OrderService {
     public OrderResponse cancelOrder(Long id) {
         log.info("Cancelling order: {}", id);
 
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException(id));
 
         if (order.getStatus() == Order.OrderStatus.SHIPPED ||
@@ -186,8 +194,10 @@ public class OrderService {
                     "Cannot cancel order that has been shipped or delivered");
         }
 
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
         Order cancelledOrder = orderRepository.save(order);
+        orderHistoryService.orderStatusChanged(cancelledOrder, previousStatus);
         //Kafka public event to restore product stock.
         OrderEvent event = OrderEvent.builder()
                 .orderId(order.getId())
@@ -202,29 +212,16 @@ public class OrderService {
                 .message("Order cancelled with order number: " + cancelledOrder.getOrderNumber())
                 .eventTimestamp(LocalDateTime.now())
                 .build();
-        kafkaProducerService.sendOrderEvent(event);
+        outboxService.enqueueOrderEvent(event);
         return OrderResponse.fromEntity(cancelledOrder);
     }
     @Transactional(readOnly = true)
     public boolean hasActiveOrders(Long userId) {
-        List<Order> activeOrders = orderRepository.findByUserId(userId).stream()
-                .filter(order -> order.getStatus() != Order.OrderStatus.CANCELLED
-                        && order.getStatus() != Order.OrderStatus.DELIVERED)
-                .toList();
-        return !activeOrders.isEmpty();
+        return orderRepository.existsActiveByUserId(userId);
     }
 
     @Transactional(readOnly = true)
     public boolean hasActiveOrdersForProduct(Long productId) {
-        return orderRepository.findAll().stream()
-                .filter(order -> order.getStatus() != Order.OrderStatus.CANCELLED
-                        && order.getStatus() != Order.OrderStatus.DELIVERED)
-                .anyMatch(order -> order.getItems()
-                        .stream().anyMatch(item -> item.getProductId().equals(productId)));
-
-    }
-
-    private String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return orderRepository.existsActiveByProductId(productId);
     }
 }
@@ -0,0 +1,137 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.client.ProductServiceClient;
+import com.ecommerce.order_service.client.UserServiceClient;
+import com.ecommerce.order_service.dto.OrderItemRequest;
+import com.ecommerce.order_service.dto.OrderRequest;
+import com.ecommerce.order_service.dto.external.ProductAvailabilityResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderValidationService {
+
+    private final UserServiceClient userServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final UserProjectionService userProjectionService;
+    private final CatalogReplicaService catalogReplicaService;
+
+    // false: user check, then product lookup, each blocking in turn
+    // true: user check and product lookups run concurrently, blocking once for the combined result
+    @Value("${order.validation.parallel:false}")
+    private boolean parallel;
+
+    // Max products per batch lookup when the cart is split in parallel mode
+    @Value("${order.validation.batch-size:50}")
+    private int batchSize;
+
+    // Max batch lookups in flight at the same time for one order
+    @Value("${order.validation.max-concurrency:4}")
+    private int maxConcurrency;
+
+    // Validates the user and stock for every item, returns the products keyed by id for pricing
+    public Map<Long, ProductAvailabilityResponse> validateOrder(OrderRequest request) {
+        if (parallel) {
+            // Captured on the request thread, the JWT filter reads it back from the Reactor context
+            SecurityContext securityContext = SecurityContextHolder.getContext();
+            return validateOrderAsync(request)
+                    .contextWrite(ReactiveSecurityContextHolder.withSecurityContext(Mono.just(securityContext)))
+                    .block();
+        }
+
+        Map<Long, Integer> quantities = totalQuantities(request);
+        boolean userExists = userExists(request.getUserId());
+        List<ProductAvailabilityResponse> productList = userExists
+                ? catalogReplicaService.lookup(quantities).orElseGet(() -> productServiceClient.getProductsByIds(quantities))
+                : List.of();
+
+        return checkAvailability(request, quantities, userExists, productList);
+    }
+
+    // Non-blocking validation: user check and product lookups run concurrently
+    public Mono<Map<Long, ProductAvailabilityResponse>> validateOrderAsync(OrderRequest request) {
+        Map<Long, Integer> quantities = totalQuantities(request);
+
+        Mono<List<ProductAvailabilityResponse>> productLookup = Mono.justOrEmpty(catalogReplicaService.lookup(quantities))
+                .switchIfEmpty(Flux.fromIterable(partition(quantities))
+                        .flatMap(productServiceClient::getProductsByIdsAsync, maxConcurrency)
+                        .flatMapIterable(Function.identity())
+                        .collectList());
+
+        return Mono.zip(userExistsAsync(request.getUserId()), productLookup)
+                .map(result -> checkAvailability(request, quantities, result.getT1(), result.getT2()));
+    }
+
+    // Local projection first, user-service only on a miss
+    private boolean userExists(Long userId) {
+        return userProjectionService.isKnownUser(userId) || userServiceClient.userExists(userId);
+    }
+
+    private Mono<Boolean> userExistsAsync(Long userId) {
+        return userProjectionService.isKnownUser(userId)
+                ? Mono.just(true)
+                : userServiceClient.userExistsAsync(userId);
+    }
+
+    // Same product may appear on several lines, check stock against the total
+    static Map<Long, Integer> totalQuantities(OrderRequest request) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private Map<Long, ProductAvailabilityResponse> checkAvailability(OrderRequest request,
+                                                                     Map<Long, Integer> quantities,
+                                                                     boolean userExists,
+                                                                     List<ProductAvailabilityResponse> productList) {
+        if (!userExists) {
+            throw new IllegalArgumentException("User not found: " + request.getUserId());
+        }
+
+        Map<Long, ProductAvailabilityResponse> products = productList.stream()
+                .collect(Collectors.toMap(ProductAvailabilityResponse::getId, Function.identity()));
+
+        for (Long productId : quantities.keySet()) {
+            ProductAvailabilityResponse product = products.get(productId);
+            if (product == null || !product.isInStock()) {
+                throw new IllegalArgumentException(
+                        "Product not in stock: " + productId);
+            }
+        }
+        return products;
+    }
+
+    private List<Map<Long, Integer>> partition(Map<Long, Integer> quantities) {
+        List<Map<Long, Integer>> batches = new ArrayList<>();
+        Map<Long, Integer> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
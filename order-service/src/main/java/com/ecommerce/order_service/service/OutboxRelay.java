@@ -0,0 +1,95 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.common.kafka.KafkaSendGate;
+import com.ecommerce.order_service.entity.OutboxEvent;
+import com.ecommerce.order_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Drains the outbox table into Kafka in batches, each aggregate's events in the order they were written
+// (at-least-once: a failed batch is sent again on the next run). Every instance runs it: a batch is
+// one partition of the outbox (OutboxEventRepository.RELAY_PARTITIONS) under the partition's advisory
+// lock, instances work on different partitions at the same time
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    // Advisory lock class of the relay's partitions ("outb"), the only advisory locks in this database
+    static final int RELAY_LOCK = 0x6f757462;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, byte[]> eventKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaSendGate kafkaSendGate;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:200}")
+    public void relay() {
+        try {
+            // Shuffled: instances running at the same time mostly start on different partitions
+            List<Integer> partitions = new ArrayList<>(outboxEventRepository.findPendingPartitions());
+            Collections.shuffle(partitions);
+            for (int partition : partitions) {
+                Integer relayed;
+                // Keep going while batches come back full, there is a backlog
+                do {
+                    relayed = transactionTemplate.execute(status -> relayBatch(partition));
+                } while (relayed != null && relayed == batchSize);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch(int partition) {
+        if (!outboxEventRepository.tryLockPartition(RELAY_LOCK, partition)) {
+            log.debug("Outbox partition {} relayed by another instance", partition);
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(partition, batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(event -> kafkaSendGate.send(eventKafkaTemplate, EventEncoder.toRecord(
+                        event.getTopic(), event.getMessageKey(), event.getEventId(), event.getEventType(),
+                        event.getPayload(), event.getContentType())))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while relaying outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // Rolls back: the rows stay in the outbox
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch", e);
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+        log.debug("Relayed {} outbox events", batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.entity.OutboxEvent;
+import com.ecommerce.order_service.event.OrderEvent;
+import com.ecommerce.order_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class OutboxService {
+
+    static final String ORDER_TOPIC = "order-events";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventEncoder eventEncoder;
+
+    // Must join the caller's transaction: the event exists only if the order change commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueOrderEvent(OrderEvent event) {
+        EventEncoder.EncodedEvent encoded = eventEncoder.encode(event);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(ORDER_TOPIC)
+                .messageKey(event.getOrderId().toString())
+                .eventType(event.getEventType())
+                .eventId(UUID.randomUUID())
+                .payload(encoded.payload())
+                .contentType(encoded.contentType())
+                .build());
+    }
+}
@@ -0,0 +1,200 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.dto.OrderHistoryResponse;
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.ReactiveOrder;
+import com.ecommerce.order_service.entity.UserOrderHistory;
+import com.ecommerce.order_service.repository.UserOrderHistoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// OrderHistoryService for the reactive profile: the same user_order_history rows, kept up to date
+// in the R2DBC transaction that changes the user's orders
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOrderHistoryService {
+
+    private static final TypeReference<Map<Order.OrderStatus, Integer>> STATUS_COUNTS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<UserOrderHistory.OrderEntry>> RECENT_ORDERS = new TypeReference<>() {
+    };
+
+    private record StatusTotals(Order.OrderStatus status, long orders, BigDecimal totalAmount) {
+    }
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    // Same modules as Hibernate's JSON columns, the JPA side reads these rows as its own
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    // One primary key read. Rows missing for users whose orders predate the read model are built,
+    // in a transaction of their own, only then
+    public Mono<OrderHistoryResponse> getHistory(Long userId) {
+        return databaseClient.sql("SELECT * FROM user_order_history WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(this::toHistory)
+                .one()
+                .switchIfEmpty(Mono.defer(() -> transactionalOperator.transactional(rebuild(userId))))
+                .map(OrderHistoryResponse::fromEntity);
+    }
+
+    // Called in the transaction that creates the order, so both commit or neither does
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Mono<Void> orderCreated(ReactiveOrder order, int itemCount) {
+        return builtFromOrders(order.getUserId())
+                .flatMap(built -> built ? Mono.empty() : lockHistory(order.getUserId())
+                        .flatMap(history -> {
+                            history.orderCreated(toEntry(order, itemCount));
+                            return save(history);
+                        }));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Mono<Void> orderStatusChanged(ReactiveOrder order, int itemCount, Order.OrderStatus previousStatus) {
+        if (order.getStatus() == previousStatus) {
+            return Mono.empty();
+        }
+        return builtFromOrders(order.getUserId())
+                .flatMap(built -> built ? Mono.empty() : lockHistory(order.getUserId())
+                        .flatMap(history -> {
+                            history.orderStatusChanged(toEntry(order, itemCount), previousStatus);
+                            return save(history);
+                        }));
+    }
+
+    // Same two queries as OrderHistoryService.rebuild, under the same row lock
+    private Mono<UserOrderHistory> rebuild(Long userId) {
+        return createIfMissing(userId)
+                .then(lockHistory(userId))
+                .flatMap(history -> findStatusTotals(userId)
+                        .flatMap(totals -> findRecentEntries(userId)
+                                .flatMap(recent -> {
+                                    Map<Order.OrderStatus, Integer> counts = new EnumMap<>(Order.OrderStatus.class);
+                                    BigDecimal spend = BigDecimal.ZERO;
+                                    long orders = 0;
+                                    for (StatusTotals total : totals) {
+                                        counts.put(total.status(), Math.toIntExact(total.orders()));
+                                        orders += total.orders();
+                                        if (total.status() != Order.OrderStatus.CANCELLED) {
+                                            spend = spend.add(total.totalAmount());
+                                        }
+                                    }
+                                    history.setStatusCounts(counts);
+                                    history.setLifetimeSpend(spend);
+                                    history.setRecentOrders(recent);
+                                    log.info("Rebuilt order history of user {} from {} orders", userId, orders);
+                                    return save(history).thenReturn(history);
+                                })));
+    }
+
+    // As in OrderHistoryService: a user without a row gets it built from the orders table, the current
+    // transaction's change included
+    private Mono<Boolean> builtFromOrders(Long userId) {
+        return createIfMissing(userId)
+                .flatMap(created -> created == 0 ? Mono.just(false) : rebuild(userId).thenReturn(true));
+    }
+
+    private Mono<Long> createIfMissing(Long userId) {
+        return databaseClient.sql(UserOrderHistoryRepository.CREATE_IF_MISSING)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<UserOrderHistory> lockHistory(Long userId) {
+        return databaseClient.sql("SELECT * FROM user_order_history WHERE user_id = :userId FOR UPDATE")
+                .bind("userId", userId)
+                .map(this::toHistory)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Order history row missing for user " + userId)));
+    }
+
+    private Mono<List<StatusTotals>> findStatusTotals(Long userId) {
+        return databaseClient.sql("SELECT status, count(*) AS orders, sum(total_amount) AS total_amount " +
+                        "FROM orders WHERE user_id = :userId GROUP BY status")
+                .bind("userId", userId)
+                .map(row -> new StatusTotals(Order.OrderStatus.valueOf(row.get("status", String.class)),
+                        row.get("orders", Long.class), row.get("total_amount", BigDecimal.class)))
+                .all()
+                .collectList();
+    }
+
+    // idx_orders_user_id_id, item counts as a subquery per returned order
+    private Mono<List<UserOrderHistory.OrderEntry>> findRecentEntries(Long userId) {
+        return databaseClient.sql("SELECT o.id, o.order_number, o.status, o.total_amount, o.created_at, " +
+                        "(SELECT count(*) FROM order_items i WHERE i.order_id = o.id) AS item_count " +
+                        "FROM orders o WHERE o.user_id = :userId ORDER BY o.id DESC LIMIT :limit")
+                .bind("userId", userId)
+                .bind("limit", UserOrderHistory.MAX_RECENT_ORDERS)
+                .map(row -> UserOrderHistory.OrderEntry.builder()
+                        .id(row.get("id", Long.class))
+                        .orderNumber(row.get("order_number", String.class))
+                        .status(Order.OrderStatus.valueOf(row.get("status", String.class)))
+                        .totalAmount(row.get("total_amount", BigDecimal.class))
+                        .itemCount(Math.toIntExact(row.get("item_count", Long.class)))
+                        .createdAt(row.get("created_at", LocalDateTime.class))
+                        .build())
+                .all()
+                .collectList();
+    }
+
+    private Mono<Void> save(UserOrderHistory history) {
+        history.setUpdatedAt(LocalDateTime.now());
+        return Mono.fromCallable(() -> new String[]{
+                        objectMapper.writeValueAsString(history.getStatusCounts()),
+                        objectMapper.writeValueAsString(history.getRecentOrders())})
+                .flatMap(json -> databaseClient.sql("UPDATE user_order_history SET status_counts = CAST(:statusCounts AS jsonb), " +
+                                "lifetime_spend = :lifetimeSpend, recent_orders = CAST(:recentOrders AS jsonb), " +
+                                "updated_at = :updatedAt WHERE user_id = :userId")
+                        .bind("statusCounts", json[0])
+                        .bind("lifetimeSpend", history.getLifetimeSpend())
+                        .bind("recentOrders", json[1])
+                        .bind("updatedAt", history.getUpdatedAt())
+                        .bind("userId", history.getUserId())
+                        .then());
+    }
+
+    private UserOrderHistory toHistory(Readable row) {
+        try {
+            return UserOrderHistory.builder()
+                    .userId(row.get("user_id", Long.class))
+                    .statusCounts(objectMapper.readValue(row.get("status_counts", String.class), STATUS_COUNTS))
+                    .lifetimeSpend(row.get("lifetime_spend", BigDecimal.class))
+                    .recentOrders(objectMapper.readValue(row.get("recent_orders", String.class), RECENT_ORDERS))
+                    .updatedAt(row.get("updated_at", LocalDateTime.class))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable order history row", e);
+        }
+    }
+
+    private UserOrderHistory.OrderEntry toEntry(ReactiveOrder order, int itemCount) {
+        return UserOrderHistory.OrderEntry.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .itemCount(itemCount)
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,255 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.dto.CursorPage;
+import com.ecommerce.order_service.dto.OrderItemRequest;
+import com.ecommerce.order_service.dto.OrderRequest;
+import com.ecommerce.order_service.dto.OrderResponse;
+import com.ecommerce.order_service.dto.external.ProductAvailabilityResponse;
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.ReactiveOrder;
+import com.ecommerce.order_service.entity.ReactiveOrderItem;
+import com.ecommerce.order_service.event.OrderEvent;
+import com.ecommerce.order_service.exception.OrderNotFoundException;
+import com.ecommerce.order_service.repository.ReactiveOrderItemRepository;
+import com.ecommerce.order_service.repository.ReactiveOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Non-blocking counterpart of OrderService, R2DBC persistence on the same orders/order_items tables
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ReactiveOrderService {
+
+    // Orders per items query when loading a stream of orders
+    private static final int ITEM_FETCH_BATCH = 100;
+
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveOrderItemRepository orderItemRepository;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final OrderValidationService orderValidationService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final ReactiveOutboxService outboxService;
+    private final ReactiveOrderHistoryService orderHistoryService;
+    private final StockReservationService stockReservationService;
+
+    public Mono<OrderResponse> createOrder(OrderRequest request) {
+        // 1-2. Validate user exists, validate products and check stock
+        return orderValidationService.validateOrderAsync(request)
+                .flatMap(products -> {
+                    // Hold the stock until product-service applies ORDER_CREATED, released if saving fails
+                    String orderNumber = orderNumberGenerator.generate();
+                    return stockReservationService.reserveAsync(orderNumber, request)
+                            .then(Mono.defer(() -> saveOrder(request, products, orderNumber)
+                                    .doOnError(e -> stockReservationService.release(orderNumber))));
+                });
+    }
+
+    private Mono<OrderResponse> saveOrder(OrderRequest request, Map<Long, ProductAvailabilityResponse> products,
+                                          String orderNumber) {
+        // 3-4. Build items and calculate total
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        List<ReactiveOrderItem> items = new ArrayList<>();
+
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            ProductAvailabilityResponse product = products.get(itemRequest.getProductId());
+
+            BigDecimal subtotal = product.getPrice()
+                    .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+
+            items.add(ReactiveOrderItem.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .quantity(itemRequest.getQuantity())
+                    .unitPrice(product.getPrice())
+                    .subtotal(subtotal)
+                    .build());
+            totalAmount = totalAmount.add(subtotal);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ReactiveOrder order = ReactiveOrder.builder()
+                .orderNumber(orderNumber)
+                .userId(request.getUserId())
+                .shippingAddress(request.getShippingAddress())
+                .totalAmount(totalAmount)
+                .status(Order.OrderStatus.CONFIRMED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        // 5. Ids come from the JPA sequences (the columns have no default), then order and items are inserted
+        return orderRepository.nextId()
+                .flatMap(orderId -> {
+                    order.setId(orderId);
+                    items.forEach(item -> item.setOrderId(orderId));
+                    return r2dbcEntityTemplate.insert(order);
+                })
+                .flatMap(savedOrder -> orderItemRepository.nextIds(items.size())
+                        .zipWithIterable(items, (id, item) -> {
+                            item.setId(id);
+                            return item;
+                        })
+                        .concatMap(r2dbcEntityTemplate::insert)
+                        .collectList()
+                        .flatMap(savedItems -> {
+                            log.info("Order {} created: user={} items={} total={}", savedOrder.getOrderNumber(),
+                                    savedOrder.getUserId(), savedItems.size(), savedOrder.getTotalAmount());
+                            // 6. Read model and outbox in the same transaction, as in OrderService
+                            return orderHistoryService.orderCreated(savedOrder, savedItems.size())
+                                    .then(outboxService.enqueueOrderEvent(toEvent(savedOrder, savedItems, "ORDER_CREATED",
+                                            "New order created with number: " + savedOrder.getOrderNumber())))
+                                    .thenReturn(OrderResponse.fromEntity(savedOrder, savedItems));
+                        }));
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<OrderResponse> getOrderById(Long id) {
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(id)))
+                .flatMap(this::withItems);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<OrderResponse> getOrderByNumber(String orderNumber) {
+        return orderRepository.findByOrderNumber(orderNumber)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(
+                        "Order not found with number: " + orderNumber)))
+                .flatMap(this::withItems);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<CursorPage<OrderResponse>> getOrdersByUserId(Long userId, Long after, int size) {
+        int pageSize = CursorPage.pageSize(size);
+        return toPage(orderRepository.findPageByUserId(userId, CursorPage.startAfter(after), pageSize + 1), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<CursorPage<OrderResponse>> getAllOrders(Long after, int size) {
+        int pageSize = CursorPage.pageSize(size);
+        return toPage(orderRepository.findPage(CursorPage.startAfter(after), pageSize + 1), pageSize);
+    }
+
+    public Mono<OrderResponse> updateOrderStatus(Long id, Order.OrderStatus status) {
+        log.info("Updating order {} status to {}", id, status);
+
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(id)))
+                .flatMap(order -> {
+                    Order.OrderStatus previousStatus = order.getStatus();
+                    order.setStatus(status);
+                    order.setUpdatedAt(LocalDateTime.now());
+                    return orderRepository.save(order)
+                            .flatMap(updatedOrder -> orderItemRepository.findByOrderId(updatedOrder.getId())
+                                    .collectList()
+                                    .flatMap(items -> orderHistoryService.orderStatusChanged(
+                                                    updatedOrder, items.size(), previousStatus)
+                                            .thenReturn(OrderResponse.fromEntity(updatedOrder, items))));
+                });
+    }
+
+    public Mono<OrderResponse> cancelOrder(Long id) {
+        log.info("Cancelling order: {}", id);
+
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(id)))
+                .flatMap(order -> {
+                    if (order.getStatus() == Order.OrderStatus.SHIPPED ||
+                            order.getStatus() == Order.OrderStatus.DELIVERED) {
+                        return Mono.error(new IllegalArgumentException(
+                                "Cannot cancel order that has been shipped or delivered"));
+                    }
+                    Order.OrderStatus previousStatus = order.getStatus();
+                    order.setStatus(Order.OrderStatus.CANCELLED);
+                    order.setUpdatedAt(LocalDateTime.now());
+                    return orderRepository.save(order)
+                            .flatMap(cancelledOrder -> orderItemRepository.findByOrderId(cancelledOrder.getId())
+                                    .collectList()
+                                    //Kafka public event to restore product stock.
+                                    .flatMap(items -> orderHistoryService.orderStatusChanged(
+                                                    cancelledOrder, items.size(), previousStatus)
+                                            .then(outboxService.enqueueOrderEvent(toEvent(cancelledOrder, items,
+                                                    "ORDER_CANCELLED",
+                                                    "Order cancelled with order number: " + cancelledOrder.getOrderNumber())))
+                                            .thenReturn(OrderResponse.fromEntity(cancelledOrder, items))));
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<Boolean> hasActiveOrders(Long userId) {
+        return orderRepository.existsActiveByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<Boolean> hasActiveOrdersForProduct(Long productId) {
+        return orderRepository.existsActiveByProductId(productId);
+    }
+
+    // Items are loaded for the page rows only, not for the look-ahead row
+    private Mono<CursorPage<OrderResponse>> toPage(Flux<ReactiveOrder> rows, int pageSize) {
+        return rows.collectList()
+                .flatMap(orders -> {
+                    CursorPage<ReactiveOrder> page = CursorPage.of(orders, pageSize, ReactiveOrder::getId, order -> order);
+                    return withItems(Flux.fromIterable(page.getItems()))
+                            .collectList()
+                            .map(responses -> new CursorPage<>(responses, page.getNextCursor()));
+                });
+    }
+
+    private Mono<OrderResponse> withItems(ReactiveOrder order) {
+        return orderItemRepository.findByOrderId(order.getId())
+                .collectList()
+                .map(items -> OrderResponse.fromEntity(order, items));
+    }
+
+    // One items query per batch of orders instead of one per order
+    private Flux<OrderResponse> withItems(Flux<ReactiveOrder> orders) {
+        return orders.buffer(ITEM_FETCH_BATCH)
+                .concatMap(batch -> orderItemRepository
+                        .findByOrderIdIn(batch.stream().map(ReactiveOrder::getId).toList())
+                        .collectMultimap(ReactiveOrderItem::getOrderId)
+                        .flatMapMany(itemsByOrder -> Flux.fromIterable(batch)
+                                .map(order -> OrderResponse.fromEntity(order,
+                                        itemsByOrder.getOrDefault(order.getId(), List.of())))));
+    }
+
+    private OrderEvent toEvent(ReactiveOrder order, Collection<ReactiveOrderItem> items,
+                               String eventType, String message) {
+        return OrderEvent.builder()
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus().name())
+                .shippingAddress(order.getShippingAddress())
+                .createdAt(order.getCreatedAt())
+                .items(items.stream()
+                        .map(item -> OrderEvent.OrderItemDTO.builder()
+                                .productId(item.getProductId())
+                                .productName(item.getProductName())
+                                .quantity(item.getQuantity())
+                                .unitPrice(item.getUnitPrice())
+                                .subtotal(item.getSubtotal())
+                                .build())
+                        .toList())
+                .eventType(eventType)
+                .message(message)
+                .eventTimestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.common.kafka.KafkaSendGate;
+import com.ecommerce.order_service.entity.OutboxEvent;
+import com.ecommerce.order_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+// OutboxRelay for the reactive profile: the same partitions, advisory locks and relay order over R2DBC,
+// so reactive and servlet instances sharing the database never relay the same partition at once
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOutboxRelay {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final KafkaTemplate<String, byte[]> eventKafkaTemplate;
+    private final KafkaSendGate kafkaSendGate;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    // Waits for the run on the scheduling thread, never on the event loop: runs don't overlap
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:200}")
+    public void relay() {
+        try {
+            databaseClient.sql("SELECT DISTINCT " + OutboxEventRepository.RELAY_PARTITION +
+                            " AS relay_partition FROM outbox_events")
+                    .map(row -> row.get("relay_partition", Integer.class))
+                    .all()
+                    .collectList()
+                    .flatMapMany(pending -> {
+                        // Shuffled: instances running at the same time mostly start on different partitions
+                        List<Integer> partitions = new ArrayList<>(pending);
+                        Collections.shuffle(partitions);
+                        return Flux.fromIterable(partitions);
+                    })
+                    .concatMap(this::relayPartition)
+                    .blockLast();
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Keep going while batches come back full, there is a backlog
+    private Mono<Void> relayPartition(int partition) {
+        return Mono.defer(() -> transactionalOperator.transactional(relayBatch(partition)))
+                .repeat()
+                .takeUntil(relayed -> relayed < batchSize)
+                .then();
+    }
+
+    private Mono<Integer> relayBatch(int partition) {
+        return databaseClient.sql("SELECT pg_try_advisory_xact_lock(:lock, :partition) AS locked")
+                .bind("lock", OutboxRelay.RELAY_LOCK)
+                .bind("partition", partition)
+                .map(row -> row.get("locked", Boolean.class))
+                .one()
+                .flatMap(locked -> {
+                    if (!locked) {
+                        log.debug("Outbox partition {} relayed by another instance", partition);
+                        return Mono.just(0);
+                    }
+                    return findNextBatch(partition).flatMap(this::send);
+                });
+    }
+
+    private Mono<List<OutboxEvent>> findNextBatch(int partition) {
+        return databaseClient.sql("SELECT id, topic, message_key, event_type, event_id, payload, content_type " +
+                        "FROM outbox_events WHERE " + OutboxEventRepository.RELAY_PARTITION + " = :partition " +
+                        "ORDER BY relay_order LIMIT :limit")
+                .bind("partition", partition)
+                .bind("limit", batchSize)
+                .map(row -> OutboxEvent.builder()
+                        .id(row.get("id", Long.class))
+                        .topic(row.get("topic", String.class))
+                        .messageKey(row.get("message_key", String.class))
+                        .eventType(row.get("event_type", String.class))
+                        .eventId(row.get("event_id", UUID.class))
+                        .payload(row.get("payload", byte[].class))
+                        .contentType(row.get("content_type", String.class))
+                        .build())
+                .all()
+                .collectList();
+    }
+
+    private Mono<Integer> send(List<OutboxEvent> batch) {
+        if (batch.isEmpty()) {
+            return Mono.just(0);
+        }
+        // KafkaSendGate.send may wait for a permit, keep it off the event loop
+        return Mono.fromCallable(() -> CompletableFuture.allOf(batch.stream()
+                        .map(event -> kafkaSendGate.send(eventKafkaTemplate, EventEncoder.toRecord(
+                                event.getTopic(), event.getMessageKey(), event.getEventId(), event.getEventType(),
+                                event.getPayload(), event.getContentType())))
+                        .toArray(CompletableFuture[]::new)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::fromFuture)
+                .timeout(sendTimeout)
+                // Rolls back: the rows stay in the outbox
+                .onErrorMap(e -> new IllegalStateException("Kafka did not acknowledge outbox batch", e))
+                .then(databaseClient.sql("DELETE FROM outbox_events WHERE id = ANY(:ids)")
+                        .bind("ids", batch.stream().map(OutboxEvent::getId).toArray(Long[]::new))
+                        .fetch()
+                        .rowsUpdated())
+                .map(deleted -> {
+                    log.debug("Relayed {} outbox events", batch.size());
+                    return batch.size();
+                });
+    }
+}
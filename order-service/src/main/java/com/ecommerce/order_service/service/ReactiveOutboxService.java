@@ -0,0 +1,42 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.event.OrderEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// OutboxService for the reactive profile, relayed by ReactiveOutboxRelay
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOutboxService {
+
+    private final DatabaseClient databaseClient;
+    private final EventEncoder eventEncoder;
+
+    // Must join the caller's transaction: the event exists only if the order change commits.
+    // One outbox_events_seq value per row, as in ReactiveOrderRepository.nextId. relay_order is the identity
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Mono<Void> enqueueOrderEvent(OrderEvent event) {
+        return Mono.fromCallable(() -> eventEncoder.encode(event))
+                .flatMap(encoded -> databaseClient.sql("INSERT INTO outbox_events " +
+                                "(id, topic, message_key, event_type, event_id, payload, content_type, created_at) " +
+                                "VALUES (nextval('outbox_events_seq'), :topic, :messageKey, :eventType, :eventId, " +
+                                ":payload, :contentType, :createdAt)")
+                        .bind("topic", OutboxService.ORDER_TOPIC)
+                        .bind("messageKey", event.getOrderId().toString())
+                        .bind("eventType", event.getEventType())
+                        .bind("eventId", UUID.randomUUID())
+                        .bind("payload", encoded.payload())
+                        .bind("contentType", encoded.contentType())
+                        .bind("createdAt", LocalDateTime.now())
+                        .then());
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.client.ProductServiceClient;
+import com.ecommerce.order_service.dto.OrderRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+// Shared by the blocking and reactive order services.
+// Holds the order's stock in product-service from order creation until product-service applies the
+// order's ORDER_CREATED event, so orders placed in between can't take the same units. The hold is
+// keyed by the order number, which the event carries
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private final ProductServiceClient productServiceClient;
+
+    // false: only the availability check, stock is taken when ORDER_CREATED is applied
+    @Value("${order.stock-reservation.enabled:true}")
+    private boolean enabled;
+
+    // Blocking flow: released again when the order's transaction doesn't commit
+    public void reserve(String orderNumber, OrderRequest request) {
+        if (!enabled) {
+            return;
+        }
+        if (!productServiceClient.reserveStock(orderNumber, OrderValidationService.totalQuantities(request))) {
+            throw new IllegalArgumentException("Products not in stock for order: " + orderNumber);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(orderNumber);
+                    }
+                }
+            });
+        }
+    }
+
+    public Mono<Void> reserveAsync(String orderNumber, OrderRequest request) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return productServiceClient.reserveStockAsync(orderNumber, OrderValidationService.totalQuantities(request))
+                .flatMap(reserved -> reserved
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalArgumentException("Products not in stock for order: " + orderNumber)));
+    }
+
+    // Fire and forget: the failed request doesn't wait for product-service (retries included)
+    public void release(String orderNumber) {
+        if (enabled) {
+            productServiceClient.releaseStockAsync(orderNumber).subscribe();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.event.UserEvent;
+import com.ecommerce.order_service.util.LongHashSet;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Local set of existing user ids built from the user-events topic,
+// so order creation does not have to ask user-service on every checkout
+@Service
+@Slf4j
+public class UserProjectionService {
+
+    private final LongHashSet userIds;
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    public UserProjectionService(MeterRegistry meterRegistry,
+                                 @Value("${order.user-projection.enabled:true}") boolean enabled,
+                                 @Value("${order.user-projection.expected-users:100000}") int expectedUsers) {
+        this.enabled = enabled;
+        this.userIds = new LongHashSet(expectedUsers);
+        Gauge.builder("order.user.projection.size", userIds, LongHashSet::size)
+                .description("User ids known to the local projection")
+                .register(meterRegistry);
+    }
+
+    // true only when the projection has caught up and knows the user,
+    // a miss means "ask user-service", never "user does not exist"
+    public boolean isKnownUser(Long userId) {
+        return enabled && ready && userIds.contains(userId);
+    }
+
+    public void apply(UserEvent event) {
+        if (event.getUserId() == null || event.getEventType() == null) {
+            return;
+        }
+        switch (event.getEventType()) {
+            case "USER_CREATED", "USER_UPDATED" -> userIds.add(event.getUserId());
+            case "USER_DELETED" -> userIds.remove(event.getUserId());
+            default -> log.debug("Ignoring user event type: {}", event.getEventType());
+        }
+    }
+
+    public void markReady() {
+        if (!ready) {
+            ready = true;
+            log.info("User projection caught up with {} users", userIds.size());
+        }
+    }
+}
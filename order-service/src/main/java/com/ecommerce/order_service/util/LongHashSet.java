@@ -0,0 +1,152 @@
+package com.ecommerce.order_service.util;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+// Open-addressing set of primitive longs (no boxing, ~16 bytes per id at the default load factor).
+// Single writer, many readers: contains() uses an optimistic read and only takes the read lock on contention.
+public class LongHashSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] table;
+    private int size;
+
+    public LongHashSet(int expectedSize) {
+        table = newTable(tableSizeFor(expectedSize));
+    }
+
+    public boolean contains(long value) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = find(table, value) >= 0;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = find(table, value) >= 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    public boolean add(long value) {
+        checkValue(value);
+        long stamp = lock.writeLock();
+        try {
+            if (find(table, value) >= 0) {
+                return false;
+            }
+            if (size + 1 > table.length * LOAD_FACTOR) {
+                rehash(table.length * 2);
+            }
+            insert(table, value);
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(long value) {
+        checkValue(value);
+        long stamp = lock.writeLock();
+        try {
+            int index = find(table, value);
+            if (index < 0) {
+                return false;
+            }
+            deleteAt(index);
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Bounded probe so an optimistic read over a table being modified always terminates
+    private static int find(long[] table, long value) {
+        int mask = table.length - 1;
+        int index = hash(value) & mask;
+        for (int probes = 0; probes < table.length; probes++) {
+            long current = table[index];
+            if (current == EMPTY) {
+                return -1;
+            }
+            if (current == value) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static void insert(long[] table, long value) {
+        int mask = table.length - 1;
+        int index = hash(value) & mask;
+        while (table[index] != EMPTY) {
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void deleteAt(int index) {
+        int mask = table.length - 1;
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (table[next] != EMPTY) {
+            int home = hash(table[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        long[] newTable = newTable(capacity);
+        for (long value : table) {
+            if (value != EMPTY) {
+                insert(newTable, value);
+            }
+        }
+        table = newTable;
+    }
+
+    // Home slot is hash & (capacity - 1). Package-private: tests build collision clusters with it
+    static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(16, capacity);
+    }
+
+    private static void checkValue(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("Value not supported: " + value);
+        }
+    }
+}
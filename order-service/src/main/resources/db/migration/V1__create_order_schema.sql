@@ -0,0 +1,59 @@
+-- Order service schema. IF NOT EXISTS everywhere: databases created earlier by Hibernate auto-DDL
+-- are baselined and get only what they are missing
+
+-- Pooled sequences, allocationSize 50 on the JPA side (increment must match)
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS orders (
+    id               BIGINT PRIMARY KEY,
+    order_number     VARCHAR(255)   NOT NULL UNIQUE,
+    user_id          BIGINT         NOT NULL,
+    total_amount     NUMERIC(38, 2) NOT NULL,
+    status           VARCHAR(255)   NOT NULL,
+    shipping_address VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id           BIGINT PRIMARY KEY,
+    order_id     BIGINT         NOT NULL REFERENCES orders (id),
+    product_id   BIGINT         NOT NULL,
+    product_name VARCHAR(255)   NOT NULL,
+    quantity     INTEGER        NOT NULL,
+    unit_price   NUMERIC(38, 2) NOT NULL,
+    subtotal     NUMERIC(38, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id          BIGINT PRIMARY KEY,
+    topic       VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255) NOT NULL,
+    event_type  VARCHAR(255) NOT NULL,
+    payload     TEXT         NOT NULL,
+    created_at  TIMESTAMP(6)
+);
+
+-- Keyset pages of a user's orders
+CREATE INDEX IF NOT EXISTS idx_orders_user_id_id ON orders (user_id, id);
+-- Admin filters by status
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders (status);
+-- Export date range
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at);
+-- hasActiveOrders(userId): only non-terminal orders are indexed, the index stays small
+CREATE INDEX IF NOT EXISTS idx_orders_active_user_id ON orders (user_id)
+    WHERE status NOT IN ('CANCELLED', 'DELIVERED');
+-- Items of an order (fetch joins, IN lookups)
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
+-- hasActiveOrdersForProduct(productId)
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items (product_id);
+
+-- Superseded by idx_orders_active_user_id, created by auto-DDL on some databases
+DROP INDEX IF EXISTS idx_orders_user_id_status;
+
+-- Databases that used IDENTITY ids before: start the sequences after the existing rows
+SELECT setval('orders_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM orders), 1));
+SELECT setval('order_items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM order_items), 1));
+SELECT setval('outbox_events_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM outbox_events), 1));
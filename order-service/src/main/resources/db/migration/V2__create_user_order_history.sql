@@ -0,0 +1,8 @@
+-- "My orders" read model, one row per user (primary key lookup only)
+CREATE TABLE IF NOT EXISTS user_order_history (
+    user_id        BIGINT PRIMARY KEY,
+    status_counts  JSONB          NOT NULL,
+    lifetime_spend NUMERIC(38, 2) NOT NULL,
+    recent_orders  JSONB          NOT NULL,
+    updated_at     TIMESTAMP(6)
+);
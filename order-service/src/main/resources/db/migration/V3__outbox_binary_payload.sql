@@ -0,0 +1,4 @@
+-- Outbox payloads can be JSON or the binary event encoding: store bytes plus their content type
+ALTER TABLE outbox_events ALTER COLUMN payload TYPE BYTEA USING convert_to(payload, 'UTF8');
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS content_type VARCHAR(255) NOT NULL DEFAULT 'application/json';
+ALTER TABLE outbox_events ALTER COLUMN content_type DROP DEFAULT;
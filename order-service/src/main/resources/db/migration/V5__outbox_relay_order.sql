@@ -0,0 +1,10 @@
+-- Relay order of the outbox. ids come from the pooled outbox_events_seq (a block of 50 per instance) and
+-- don't follow insert order across instances. An identity takes its value on insert, one at a time
+-- (CACHE 1, keep it that way): an order's later event is inserted after the earlier one committed and
+-- always gets the higher value
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS relay_order BIGINT GENERATED ALWAYS AS IDENTITY;
+
+-- The relay reads one partition (hash of the message key) at a time, in relay order.
+-- Same expression as OutboxEventRepository.RELAY_PARTITION
+CREATE INDEX IF NOT EXISTS idx_outbox_events_relay_partition
+    ON outbox_events (((hashtext(message_key) & 2147483647) % 16), relay_order);
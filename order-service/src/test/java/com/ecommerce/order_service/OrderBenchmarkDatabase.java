@@ -0,0 +1,88 @@
+package com.ecommerce.order_service;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// PostgreSQL and the JPA repositories for the JMH benchmarks: Flyway's schema and application.yml's
+// Hibernate settings, no Kafka, Eureka, service clients or web server. The database is a Testcontainers
+// PostgreSQL (Docker needed), or an existing one with -Dbenchmark.datasource.url=jdbc:postgresql://...
+// (benchmark.datasource.username and .password, default postgres and empty). Benchmarks add orders,
+// use a throwaway database
+public final class OrderBenchmarkDatabase implements AutoCloseable {
+
+	// Not a @SpringBootConfiguration, the test slices would find two. Component scans skip it
+	@TestConfiguration(proxyBeanMethods = false)
+	@AutoConfigurationPackage
+	@ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+			JpaRepositoriesAutoConfiguration.class, FlywayAutoConfiguration.class, TransactionAutoConfiguration.class})
+	static class OrderRepositories {
+	}
+
+	private final PostgreSQLContainer<?> container;
+	private final ConfigurableApplicationContext context;
+
+	private OrderBenchmarkDatabase(PostgreSQLContainer<?> container, ConfigurableApplicationContext context) {
+		this.container = container;
+		this.context = context;
+	}
+
+	// properties: extra --name=value arguments, e.g. "--spring.jpa.properties.hibernate.jdbc.batch_size=1"
+	public static OrderBenchmarkDatabase start(String... properties) {
+		PostgreSQLContainer<?> container = null;
+		String url = System.getProperty("benchmark.datasource.url");
+		String username = System.getProperty("benchmark.datasource.username", "postgres");
+		String password = System.getProperty("benchmark.datasource.password", "");
+		if (url == null) {
+			container = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+			container.start();
+			url = container.getJdbcUrl();
+			username = container.getUsername();
+			password = container.getPassword();
+		}
+
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.cloud.config.enabled=false",
+				"--spring.datasource.url=" + url,
+				"--spring.datasource.username=" + username,
+				"--spring.datasource.password=" + password,
+				// A connection for every benchmark thread
+				"--spring.datasource.hikari.maximum-pool-size=64",
+				"--logging.level.root=WARN"));
+		args.addAll(List.of(properties));
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderRepositories.class)
+				.web(WebApplicationType.NONE)
+				.run(args.toArray(String[]::new));
+		return new OrderBenchmarkDatabase(container, context);
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	public TransactionTemplate transactionTemplate() {
+		return context.getBean(TransactionTemplate.class);
+	}
+
+	@Override
+	public void close() {
+		context.close();
+		if (container != null) {
+			container.stop();
+		}
+	}
+}
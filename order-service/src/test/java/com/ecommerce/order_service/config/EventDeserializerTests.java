@@ -0,0 +1,68 @@
+package com.ecommerce.order_service.config;
+
+import com.ecommerce.common.event.EventContentTypes;
+import com.ecommerce.order_service.event.UserEvent;
+import com.ecommerce.order_service.event.UserEventCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventDeserializerTests {
+
+	private static final byte[] BINARY = HexFormat.of().parseHex("080e3a06414354495645" + "4a0c555345525f55504441544544");
+	private static final byte[] JSON = """
+			{"userId":7,"firstName":"Ada","status":"ACTIVE","eventType":"USER_UPDATED","eventTimestamp":"2025-01-02T03:04:06"}
+			""".getBytes(StandardCharsets.UTF_8);
+
+	private final EventDeserializer<UserEvent> deserializer =
+			new EventDeserializer<>(UserEvent.class, Map.of(EventContentTypes.USER_EVENT_V1, UserEventCodec::decode));
+
+	@Test
+	void readsJsonWithoutAContentTypeHeader() {
+		// Records written before producers set the header
+		assertThat(deserializer.deserialize("user-events", new RecordHeaders(), JSON))
+				.isEqualTo(new UserEvent(7L, "ACTIVE", "USER_UPDATED"));
+	}
+
+	@Test
+	void readsJsonWithTheJsonContentType() {
+		assertThat(deserializer.deserialize("user-events", headers(EventContentTypes.JSON), JSON))
+				.isEqualTo(new UserEvent(7L, "ACTIVE", "USER_UPDATED"));
+	}
+
+	@Test
+	void readsBinaryWithItsContentType() {
+		assertThat(deserializer.deserialize("user-events", headers(EventContentTypes.USER_EVENT_V1), BINARY))
+				.isEqualTo(new UserEvent(7L, "ACTIVE", "USER_UPDATED"));
+	}
+
+	@Test
+	void rejectsAnUnknownContentType() {
+		assertThatThrownBy(() -> deserializer.deserialize("user-events", headers("application/vnd.ecommerce.user-event.v2"), BINARY))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("Unsupported content type");
+	}
+
+	@Test
+	void rejectsATruncatedBinaryValue() {
+		byte[] truncated = HexFormat.of().parseHex("080e3a0641");
+
+		assertThatThrownBy(() -> deserializer.deserialize("user-events", headers(EventContentTypes.USER_EVENT_V1), truncated))
+				.isInstanceOf(SerializationException.class)
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Headers headers(String contentType) {
+		Headers headers = new RecordHeaders();
+		headers.add(EventContentTypes.HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+		return headers;
+	}
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.order_service.event;
+
+import com.ecommerce.common.event.BinaryEventReader;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static com.ecommerce.common.event.OrderEventFields.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventCodecTests {
+
+	// product-service's OrderEventCodecTests decodes these exact bytes
+	static final String ENCODED = "085412114f52442d30303030303030303030303031180e220304176d2a0750454e44494e47"
+			+ "320931204d61696e205374388ccdc8a38dac9506420a08c80110041a030407cf420a08ca0110021a030407cf"
+			+ "4a0d4f524445525f435245415445445080d6c2a48dac9506";
+
+	@Test
+	void keepsTheWireFormat() {
+		assertThat(HexFormat.of().formatHex(OrderEventCodec.encode(orderCreated()))).isEqualTo(ENCODED);
+	}
+
+	@Test
+	void writesEveryFieldUnderItsSchemaNumber() {
+		OrderEvent event = orderCreated();
+		List<BinaryEventReader> items = new ArrayList<>();
+
+		BinaryEventReader reader = new BinaryEventReader(OrderEventCodec.encode(event));
+		OrderEvent decoded = new OrderEvent();
+		while (reader.next()) {
+			switch (reader.field()) {
+				case ORDER_ID -> decoded.setOrderId(reader.readLong());
+				case ORDER_NUMBER -> decoded.setOrderNumber(reader.readString());
+				case USER_ID -> decoded.setUserId(reader.readLong());
+				case TOTAL_AMOUNT -> decoded.setTotalAmount(reader.readDecimal());
+				case STATUS -> decoded.setStatus(reader.readString());
+				case SHIPPING_ADDRESS -> decoded.setShippingAddress(reader.readString());
+				case CREATED_AT -> decoded.setCreatedAt(reader.readTimestamp());
+				case ITEMS -> items.add(reader.readMessage());
+				case EVENT_TYPE -> decoded.setEventType(reader.readString());
+				case EVENT_TIMESTAMP -> decoded.setEventTimestamp(reader.readTimestamp());
+				default -> throw new AssertionError("Unexpected field " + reader.field());
+			}
+		}
+		decoded.setItems(items.stream().map(OrderEventCodecTests::readItem).toList());
+
+		// Not sent: message, item productName and subtotal
+		event.setMessage(null);
+		event.getItems().forEach(item -> {
+			item.setProductName(null);
+			item.setSubtotal(null);
+		});
+		assertThat(decoded).isEqualTo(event);
+	}
+
+	@Test
+	void leavesOutNullFields() {
+		OrderEvent event = OrderEvent.builder().orderId(1L).eventType("ORDER_CANCELLED").build();
+
+		BinaryEventReader reader = new BinaryEventReader(OrderEventCodec.encode(event));
+		List<Integer> fields = new ArrayList<>();
+		while (reader.next()) {
+			fields.add(reader.field());
+			reader.skip();
+		}
+
+		assertThat(fields).containsExactly(ORDER_ID, EVENT_TYPE);
+	}
+
+	static OrderEvent orderCreated() {
+		return OrderEvent.builder()
+				.orderId(42L)
+				.orderNumber("ORD-0000000000001")
+				.userId(7L)
+				.totalAmount(new BigDecimal("59.97"))
+				.status("PENDING")
+				.shippingAddress("1 Main St")
+				.createdAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6_000))
+				.items(new ArrayList<>(List.of(
+						new OrderEvent.OrderItemDTO(100L, "Mug", 2, new BigDecimal("19.99"), new BigDecimal("39.98")),
+						new OrderEvent.OrderItemDTO(101L, "Tea", 1, new BigDecimal("19.99"), new BigDecimal("19.99")))))
+				.eventType("ORDER_CREATED")
+				.message("Order created")
+				.eventTimestamp(LocalDateTime.of(2025, 1, 2, 3, 4, 6))
+				.build();
+	}
+
+	private static OrderEvent.OrderItemDTO readItem(BinaryEventReader reader) {
+		OrderEvent.OrderItemDTO item = new OrderEvent.OrderItemDTO();
+		while (reader.next()) {
+			switch (reader.field()) {
+				case ITEM_PRODUCT_ID -> item.setProductId(reader.readLong());
+				case ITEM_QUANTITY -> item.setQuantity(reader.readInt());
+				case ITEM_UNIT_PRICE -> item.setUnitPrice(reader.readDecimal());
+				default -> throw new AssertionError("Unexpected item field " + reader.field());
+			}
+		}
+		return item;
+	}
+}
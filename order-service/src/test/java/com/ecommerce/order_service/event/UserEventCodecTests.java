@@ -0,0 +1,47 @@
+package com.ecommerce.order_service.event;
+
+import com.ecommerce.common.event.BinaryEventWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserEventCodecTests {
+
+	// What user-service's UserEventCodec writes, see its UserEventCodecTests
+	static final String ENCODED = "080e12034164611a084c6f76656c616365220f616461406578616d706c652e636f6d2a08"
+			+ "3535352d30313030320931204d61696e2053743a064143544956454080cdc8a38dac95064a0c555345525f55504441"
+			+ "5445445080d6c2a48dac9506";
+
+	@Test
+	void readsUserServiceEvents() {
+		UserEvent event = UserEventCodec.decode(HexFormat.of().parseHex(ENCODED));
+
+		assertThat(event).isEqualTo(new UserEvent(7L, "ACTIVE", "USER_UPDATED"));
+	}
+
+	@Test
+	void skipsFieldsAddedByNewerWriters() {
+		byte[] encoded = HexFormat.of().parseHex(ENCODED);
+		byte[] newer = new BinaryEventWriter(32)
+				.writeString(11, "a field from a newer schema")
+				.writeLong(12, 99L)
+				.toByteArray();
+		byte[] data = Arrays.copyOf(encoded, encoded.length + newer.length);
+		System.arraycopy(newer, 0, data, encoded.length, newer.length);
+
+		assertThat(UserEventCodec.decode(data)).isEqualTo(new UserEvent(7L, "ACTIVE", "USER_UPDATED"));
+	}
+
+	@Test
+	void rejectsTruncatedEvents() {
+		byte[] encoded = HexFormat.of().parseHex(ENCODED);
+
+		assertThatThrownBy(() -> UserEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Malformed binary event");
+	}
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.OrderBenchmarkDatabase;
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Orders per second written the way createOrder writes them: the order and its items in one
+// saveAndFlush and one transaction, on PostgreSQL (OrderBenchmarkDatabase). Inserts per second are
+// that times items + 1. batchSize=1 turns Hibernate's insert batching off, one round trip per row as
+// with the IDENTITY ids before; 50 is application.yml's hibernate.jdbc.batch_size
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class OrderInsertBenchmark {
+
+	@Param({"1", "30"})
+	private int items;
+
+	@Param({"1", "50"})
+	private int batchSize;
+
+	private OrderBenchmarkDatabase database;
+	private OrderRepository orderRepository;
+	private TransactionTemplate transactionTemplate;
+	private final String prefix = "ORD-BENCH-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+	private final AtomicLong next = new AtomicLong();
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = OrderBenchmarkDatabase.start("--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+		orderRepository = database.getBean(OrderRepository.class);
+		transactionTemplate = database.transactionTemplate();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.close();
+	}
+
+	@Benchmark
+	public Long insertOrder() {
+		return transactionTemplate.execute(status -> orderRepository.saveAndFlush(newOrder()).getId());
+	}
+
+	private Order newOrder() {
+		Order order = Order.builder()
+				.orderNumber(prefix + next.getAndIncrement())
+				.userId(1L)
+				.shippingAddress("Benchmark street 1")
+				.status(Order.OrderStatus.CONFIRMED)
+				.totalAmount(BigDecimal.valueOf(items))
+				.build();
+		for (int i = 0; i < items; i++) {
+			order.addItem(OrderItem.builder()
+					.productId(100L + i)
+					.productName("Product " + i)
+					.quantity(1)
+					.unitPrice(BigDecimal.ONE)
+					.subtotal(BigDecimal.ONE)
+					.build());
+		}
+		return order;
+	}
+}
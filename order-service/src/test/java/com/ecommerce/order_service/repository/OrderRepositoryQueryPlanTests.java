@@ -0,0 +1,56 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.TestcontainersConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Plans of the active-order checks on the migrated schema, with mostly finished orders as in production
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(TestcontainersConfiguration.class)
+class OrderRepositoryQueryPlanTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@BeforeEach
+	void setUp() {
+		// 1000 users with 50 orders each, one in 50 still active
+		jdbcTemplate.update("INSERT INTO orders (id, order_number, user_id, total_amount, status, created_at) " +
+				"SELECT n, 'ORD-' || n, n % 1000, 10, " +
+				"CASE WHEN n % 50 = 0 THEN 'PENDING' WHEN n % 7 = 0 THEN 'CANCELLED' ELSE 'DELIVERED' END, now() " +
+				"FROM generate_series(1, 50000) AS n");
+		jdbcTemplate.execute("ANALYZE orders");
+	}
+
+	@Test
+	void existsActiveByUserIdUsesThePartialIndex() throws NoSuchMethodException {
+		String sql = OrderRepository.class.getMethod("existsActiveByUserId", Long.class)
+				.getAnnotation(Query.class).value();
+
+		List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql.replace(":userId", "?"), String.class, 50L);
+
+		assertThat(String.join("\n", plan)).contains("idx_orders_active_user_id");
+	}
+
+	@Test
+	void existsActiveByUserIdFindsOnlyActiveOrders() {
+		assertThat(orderRepository.existsActiveByUserId(50L)).isTrue();
+		assertThat(orderRepository.existsActiveByUserId(1L)).isFalse();
+	}
+}
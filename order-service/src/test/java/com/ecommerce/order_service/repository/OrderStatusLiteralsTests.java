@@ -0,0 +1,61 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.Query;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The active-order queries and the partial idx_orders_active_user_id spell the terminal statuses as
+// SQL literals (a parameter would keep the planner off the partial index). Renaming an
+// Order.OrderStatus, or changing the list in one place only, must fail here
+class OrderStatusLiteralsTests {
+
+	private static final Pattern STATUS_LIST = Pattern.compile("status NOT IN \\(([^)]*)\\)");
+	private static final Pattern LITERAL = Pattern.compile("'([^']*)'");
+
+	private static final Set<String> TERMINAL = Set.of(
+			Order.OrderStatus.CANCELLED.name(), Order.OrderStatus.DELIVERED.name());
+
+	@Test
+	void partialIndexListsTheTerminalStatuses() throws IOException {
+		String migration = new ClassPathResource("db/migration/V1__create_order_schema.sql")
+				.getContentAsString(StandardCharsets.UTF_8);
+
+		assertThat(statusLiterals(migration)).isEqualTo(TERMINAL);
+	}
+
+	@Test
+	void activeOrderQueriesListTheTerminalStatuses() throws NoSuchMethodException {
+		assertThat(statusLiterals(OrderRepository.class.getMethod("existsActiveByUserId", Long.class)
+				.getAnnotation(Query.class).value())).isEqualTo(TERMINAL);
+		assertThat(statusLiterals(OrderRepository.class.getMethod("existsActiveByProductId", Long.class)
+				.getAnnotation(Query.class).value())).isEqualTo(TERMINAL);
+		assertThat(statusLiterals(ReactiveOrderRepository.class.getMethod("existsActiveByUserId", Long.class)
+				.getAnnotation(org.springframework.data.r2dbc.repository.Query.class).value())).isEqualTo(TERMINAL);
+		assertThat(statusLiterals(ReactiveOrderRepository.class.getMethod("existsActiveByProductId", Long.class)
+				.getAnnotation(org.springframework.data.r2dbc.repository.Query.class).value())).isEqualTo(TERMINAL);
+	}
+
+	@Test
+	void terminalStatusesAreOrderStatuses() {
+		Set<String> names = Arrays.stream(Order.OrderStatus.values()).map(Enum::name).collect(Collectors.toSet());
+
+		assertThat(names).containsAll(TERMINAL);
+	}
+
+	private static Set<String> statusLiterals(String sql) {
+		Matcher list = STATUS_LIST.matcher(sql);
+		assertThat(list.find()).as("status NOT IN (...) in %s", sql).isTrue();
+		return LITERAL.matcher(list.group(1)).results().map(literal -> literal.group(1)).collect(Collectors.toSet());
+	}
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.order_service.repository;
+
+import com.ecommerce.order_service.TestcontainersConfiguration;
+import com.ecommerce.order_service.entity.OutboxEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(TestcontainersConfiguration.class)
+class OutboxEventRepositoryTests {
+
+	private static final int LOCK = 42;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void partitionLockIsHeldByOneTransactionAtATime() throws SQLException {
+		assertThat(outboxEventRepository.tryLockPartition(LOCK, 3)).isTrue();
+		// Taken again by the same transaction
+		assertThat(outboxEventRepository.tryLockPartition(LOCK, 3)).isTrue();
+
+		// Another instance's relay gets the other partitions
+		try (Connection other = dataSource.getConnection()) {
+			other.setAutoCommit(false);
+			assertThat(tryLock(other, 3)).isFalse();
+			assertThat(tryLock(other, 4)).isTrue();
+			other.rollback();
+		}
+	}
+
+	@Test
+	void batchFollowsInsertOrderNotIds() {
+		// Two instances' id blocks: the later event of order 7 got the lower id
+		insert(200, "7", "ORDER_CREATED");
+		insert(10, "7", "ORDER_CANCELLED");
+		insert(11, "8", "ORDER_CREATED");
+
+		int partition = partitionOf("7");
+		assertThat(outboxEventRepository.findPendingPartitions()).contains(partition, partitionOf("8"));
+		List<OutboxEvent> batch = outboxEventRepository.findNextBatch(partition, 10);
+
+		assertThat(batch).filteredOn(event -> event.getMessageKey().equals("7"))
+				.extracting(OutboxEvent::getEventType)
+				.containsExactly("ORDER_CREATED", "ORDER_CANCELLED");
+		assertThat(batch).allMatch(event -> partitionOf(event.getMessageKey()) == partition);
+	}
+
+	@Test
+	void everyKeyMapsToOnePartitionInRange() {
+		for (int key = 0; key < 200; key++) {
+			assertThat(partitionOf(String.valueOf(key))).isBetween(0, OutboxEventRepository.RELAY_PARTITIONS - 1);
+		}
+	}
+
+	private void insert(long id, String messageKey, String eventType) {
+		entityManager.createNativeQuery("INSERT INTO outbox_events (id, topic, message_key, event_type, event_id, " +
+						"payload, content_type, created_at) VALUES (?, 'order-events', ?, ?, gen_random_uuid(), " +
+						"CAST('{}' AS bytea), 'application/json', now())")
+				.setParameter(1, id)
+				.setParameter(2, messageKey)
+				.setParameter(3, eventType)
+				.executeUpdate();
+	}
+
+	private int partitionOf(String messageKey) {
+		return ((Number) entityManager.createNativeQuery("SELECT " +
+						OutboxEventRepository.RELAY_PARTITION.replace("message_key", "CAST(? AS varchar)"))
+				.setParameter(1, messageKey)
+				.getSingleResult()).intValue();
+	}
+
+	private static boolean tryLock(Connection connection, int partition) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_xact_lock(?, ?)")) {
+			statement.setInt(1, LOCK);
+			statement.setInt(2, partition);
+			try (ResultSet result = statement.executeQuery()) {
+				result.next();
+				return result.getBoolean(1);
+			}
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.event.ProductEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogReplicaServiceTests {
+
+	private final CatalogReplicaService replica = new CatalogReplicaService(
+			new SimpleMeterRegistry(), true, Duration.ofSeconds(5), Duration.ofSeconds(30));
+
+	@Test
+	void lagIsMeasuredFromTheRecordTimestamp() {
+		replica.markCaughtUp();
+
+		// eventTimestamp written in a zone hours ahead of this one: ignored
+		replica.apply(event(LocalDateTime.now(ZoneOffset.ofHours(14))), System.currentTimeMillis() - 100);
+		assertThat(replica.isFresh()).isTrue();
+		assertThat(replica.lookup(Map.of(1L, 2))).hasValueSatisfying(products ->
+				assertThat(products).singleElement().satisfies(product -> assertThat(product.getPrice()).isEqualByComparingTo("9.99")));
+
+		replica.apply(event(LocalDateTime.now()), System.currentTimeMillis() - 6000);
+		assertThat(replica.isFresh()).isFalse();
+		assertThat(replica.lookup(Map.of(1L, 2))).isEmpty();
+	}
+
+	@Test
+	void producerClockAheadCountsAsNoLag() {
+		replica.markCaughtUp();
+
+		replica.apply(event(LocalDateTime.now()), System.currentTimeMillis() + 60_000);
+
+		assertThat(replica.isFresh()).isTrue();
+	}
+
+	@Test
+	void catchingUpClearsTheLagOfReplayedEvents() {
+		// Replayed from the beginning of the topic on startup
+		replica.apply(event(null), System.currentTimeMillis() - Duration.ofDays(3).toMillis());
+		assertThat(replica.isFresh()).isFalse();
+
+		replica.markCaughtUp();
+
+		assertThat(replica.isFresh()).isTrue();
+	}
+
+	private static ProductEvent event(LocalDateTime eventTimestamp) {
+		return new ProductEvent(1L, "Mug", new BigDecimal("9.99"), 10, "ACTIVE", "PRODUCT_UPDATED", eventTimestamp);
+	}
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.event.OrderEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encoding an ORDER_CREATED event for the outbox, kafka.events.encoding json against binary.
+// The payload size of each is printed when the trial starts. Decoding: product-service's
+// OrderEventDeserializerBenchmark. Allocation per event: -prof gc in jmh.args
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EventEncoderBenchmark {
+
+	@Param({"json", "binary"})
+	private String encoding;
+
+	@Param({"2", "30"})
+	private int items;
+
+	private EventEncoder encoder;
+	private OrderEvent event;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		encoder = new EventEncoder(encoding);
+		event = orderCreated(items);
+		System.out.println(encoding + ", " + items + " items: " + encoder.encode(event).payload().length + " bytes");
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		return encoder.encode(event).payload();
+	}
+
+	private static OrderEvent orderCreated(int items) {
+		LocalDateTime now = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+		List<OrderEvent.OrderItemDTO> lines = new ArrayList<>();
+		for (int i = 0; i < items; i++) {
+			lines.add(OrderEvent.OrderItemDTO.builder()
+					.productId(100L + i)
+					.productName("Product " + i)
+					.quantity(1 + i % 3)
+					.unitPrice(new BigDecimal("19.99"))
+					.subtotal(new BigDecimal("19.99").multiply(BigDecimal.valueOf(1 + i % 3)))
+					.build());
+		}
+		return OrderEvent.builder()
+				.orderId(123456L)
+				.orderNumber("ORD-0000ABCDEFGHI")
+				.userId(42L)
+				.totalAmount(new BigDecimal("599.70"))
+				.status("CONFIRMED")
+				.shippingAddress("1 Main Street, Springfield")
+				.createdAt(now)
+				.items(lines)
+				.eventType("ORDER_CREATED")
+				.message("New order created with number: ORD-0000ABCDEFGHI")
+				.eventTimestamp(now)
+				.build();
+	}
+}
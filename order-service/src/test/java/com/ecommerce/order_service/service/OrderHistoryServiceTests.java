@@ -0,0 +1,98 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.TestcontainersConfiguration;
+import com.ecommerce.order_service.dto.OrderHistoryResponse;
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.OrderItem;
+import com.ecommerce.order_service.repository.OrderRepository;
+import com.ecommerce.order_service.repository.UserOrderHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// getHistory runs read-only (PostgreSQL rejects writes in it), the rebuild of a missing row commits
+// in its own transaction. Not rolled back: each test uses its own user
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TestcontainersConfiguration.class, OrderHistoryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderHistoryServiceTests {
+
+	private static final AtomicLong NEXT_USER = new AtomicLong(System.nanoTime() % 1_000_000_000L);
+
+	@Autowired
+	private OrderHistoryService orderHistoryService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private UserOrderHistoryRepository historyRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void aMissingRowIsBuiltFromTheOrdersOnFirstRead() {
+		long userId = NEXT_USER.incrementAndGet();
+		transactionTemplate.executeWithoutResult(status -> {
+			orderRepository.save(order(userId, Order.OrderStatus.CONFIRMED, "10.00"));
+			orderRepository.save(order(userId, Order.OrderStatus.CANCELLED, "5.00"));
+		});
+
+		OrderHistoryResponse history = orderHistoryService.getHistory(userId);
+
+		assertThat(history.getStatusCounts())
+				.containsEntry(Order.OrderStatus.CONFIRMED, 1)
+				.containsEntry(Order.OrderStatus.CANCELLED, 1);
+		assertThat(history.getLifetimeSpend()).isEqualByComparingTo("10.00");
+		assertThat(history.getRecentOrders()).hasSize(2);
+		assertThat(historyRepository.findById(userId)).isPresent();
+	}
+
+	@Test
+	void anExistingRowIsReturnedAsStored() {
+		long userId = NEXT_USER.incrementAndGet();
+		transactionTemplate.executeWithoutResult(status -> historyRepository.createIfMissing(userId));
+		// Not in the row: a rebuild would count it
+		transactionTemplate.executeWithoutResult(status ->
+				orderRepository.save(order(userId, Order.OrderStatus.CONFIRMED, "10.00")));
+
+		OrderHistoryResponse history = orderHistoryService.getHistory(userId);
+
+		assertThat(history.getStatusCounts()).isEmpty();
+		assertThat(history.getLifetimeSpend()).isEqualByComparingTo("0");
+		assertThat(history.getRecentOrders()).isEmpty();
+	}
+
+	private static Order order(long userId, Order.OrderStatus status, String totalAmount) {
+		Order order = Order.builder()
+				.orderNumber("ORD-H-" + UUID.randomUUID().toString().substring(0, 8))
+				.userId(userId)
+				.shippingAddress("1 Main Street")
+				.status(status)
+				.totalAmount(new BigDecimal(totalAmount))
+				.build();
+		order.addItem(OrderItem.builder()
+				.productId(1L)
+				.productName("Mug")
+				.quantity(1)
+				.unitPrice(new BigDecimal(totalAmount))
+				.subtotal(new BigDecimal(totalAmount))
+				.build());
+		return order;
+	}
+}
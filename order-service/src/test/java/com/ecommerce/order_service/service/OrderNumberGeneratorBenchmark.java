@@ -0,0 +1,40 @@
+package com.ecommerce.order_service.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Order numbers per second from threads sharing one generator: the CAS loop of OrderNumberGenerator
+// against the 8 random hex characters it replaced. More threads: -t 1 / -t 16 in jmh.args.
+// The clock caps the generator at 4096 numbers per ms, past that it borrows from the next millisecond
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class OrderNumberGeneratorBenchmark {
+
+	private final OrderNumberGenerator generator = new OrderNumberGenerator(1, System::currentTimeMillis);
+
+	@Benchmark
+	public String snowflake() {
+		return generator.generate();
+	}
+
+	@Benchmark
+	public String randomUuidPrefix() {
+		return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+	}
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.order_service.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.serviceregistry.Registration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderNumberGeneratorTests {
+
+	private static final long EPOCH = 1704067200000L;
+	private static final long T = EPOCH + 1_000_000L;
+
+	@Test
+	void numbersAreThirteenBase36Characters() {
+		// Short ids are zero padded
+		String first = new OrderNumberGenerator(0, () -> EPOCH + 1).generate();
+		assertThat(first).isEqualTo("ORD-000000002HWCG");
+		assertThat(parse(first)).isEqualTo(1L << 22);
+		assertThat(new OrderNumberGenerator(5, System::currentTimeMillis).generate()).matches("ORD-[0-9A-Z]{13}");
+		// Last millisecond of the 41-bit timestamp, highest worker id
+		String last = new OrderNumberGenerator(1023, () -> EPOCH + (1L << 41) - 1).generate();
+		assertThat(last).matches("ORD-[0-9A-Z]{13}");
+		assertThat(parse(last)).isEqualTo(Long.MAX_VALUE - 4095);
+	}
+
+	@Test
+	void numbersCarryTheirTimestampWorkerAndSequence() {
+		OrderNumberGenerator generator = new OrderNumberGenerator(17, () -> T);
+
+		long first = parse(generator.generate());
+		long second = parse(generator.generate());
+
+		assertThat(timestamp(first)).isEqualTo(T - EPOCH);
+		assertThat(worker(first)).isEqualTo(17);
+		assertThat(sequence(first)).isZero();
+		assertThat(sequence(second)).isEqualTo(1);
+	}
+
+	@Test
+	void exhaustedSequenceBorrowsTheNextMillisecond() {
+		AtomicLong clock = new AtomicLong(T);
+		OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+
+		List<String> numbers = new ArrayList<>();
+		for (int i = 0; i < 4096; i++) {
+			numbers.add(generator.generate());
+		}
+		assertThat(numbers).allSatisfy(number -> assertThat(timestamp(parse(number))).isEqualTo(T - EPOCH));
+		assertThat(sequence(parse(numbers.get(4095)))).isEqualTo(4095);
+
+		long borrowed = parse(generator.generate());
+		assertThat(timestamp(borrowed)).isEqualTo(T - EPOCH + 1);
+		assertThat(sequence(borrowed)).isZero();
+
+		// The borrowed millisecond arrives: its sequence goes on
+		clock.set(T + 1);
+		long next = parse(generator.generate());
+		assertThat(timestamp(next)).isEqualTo(T - EPOCH + 1);
+		assertThat(sequence(next)).isEqualTo(1);
+
+		numbers.add(Long.toString(borrowed));
+		assertThat(new HashSet<>(numbers)).hasSize(4097);
+	}
+
+	@Test
+	void clockMovingBackwardsKeepsNumbersIncreasing() {
+		AtomicLong clock = new AtomicLong(T);
+		OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get);
+
+		long before = parse(generator.generate());
+		clock.set(T - 1000);
+		long after = parse(generator.generate());
+		long later = parse(generator.generate());
+
+		assertThat(after).isGreaterThan(before);
+		assertThat(later).isGreaterThan(after);
+		assertThat(timestamp(after)).isEqualTo(T - EPOCH);
+
+		// Back past the last timestamp: a new millisecond again
+		clock.set(T + 5);
+		long recovered = parse(generator.generate());
+		assertThat(timestamp(recovered)).isEqualTo(T - EPOCH + 5);
+		assertThat(sequence(recovered)).isZero();
+	}
+
+	@Test
+	void concurrentCallersGetUniqueIncreasingNumbers() throws Exception {
+		OrderNumberGenerator generator = new OrderNumberGenerator(3, System::currentTimeMillis);
+		int threads = 8;
+		int perThread = 20_000;
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<List<String>>> results = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int t = 0; t < threads; t++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					List<String> numbers = new ArrayList<>(perThread);
+					for (int i = 0; i < perThread; i++) {
+						numbers.add(generator.generate());
+					}
+					return numbers;
+				}));
+			}
+			start.countDown();
+
+			Set<String> all = new HashSet<>();
+			for (Future<List<String>> result : results) {
+				List<String> numbers = result.get();
+				// Fixed width: string order is number order
+				assertThat(numbers).isSortedAccordingTo(String::compareTo).doesNotHaveDuplicates();
+				all.addAll(numbers);
+			}
+			assertThat(all).hasSize(threads * perThread);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void configuredWorkerIdWins() {
+		assertThat(OrderNumberGenerator.resolveWorkerId(42, false, registration("order-service:8082"))).isEqualTo(42);
+		assertThat(OrderNumberGenerator.resolveWorkerId(1023, false, null)).isEqualTo(1023);
+	}
+
+	@Test
+	void rejectsAWorkerIdOutOfRange() {
+		assertThatThrownBy(() -> OrderNumberGenerator.resolveWorkerId(1024, true, null))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("between 0 and 1023");
+	}
+
+	@Test
+	void failsWithoutAWorkerIdUnlessDerivingIsAllowed() {
+		assertThatThrownBy(() -> OrderNumberGenerator.resolveWorkerId(-1, false, registration("order-service:8082")))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("order.number.worker-id is not set");
+	}
+
+	@Test
+	void derivesTheWorkerIdFromTheInstanceIdWhenAllowed() {
+		long derived = OrderNumberGenerator.resolveWorkerId(-1, true, registration("order-service:8082"));
+
+		assertThat(derived).isBetween(0L, 1023L)
+				.isEqualTo(OrderNumberGenerator.resolveWorkerId(-1, true, registration("order-service:8082")));
+		assertThat(OrderNumberGenerator.resolveWorkerId(-1, true, null)).isZero();
+	}
+
+	private static Registration registration(String instanceId) {
+		Registration registration = mock(Registration.class);
+		when(registration.getInstanceId()).thenReturn(instanceId);
+		return registration;
+	}
+
+	private static long parse(String number) {
+		return Long.parseLong(number.substring("ORD-".length()), 36);
+	}
+
+	private static long timestamp(long id) {
+		return id >>> 22;
+	}
+
+	private static long worker(long id) {
+		return (id >>> 12) & 1023;
+	}
+
+	private static long sequence(long id) {
+		return id & 4095;
+	}
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.TestcontainersConfiguration;
+import com.ecommerce.order_service.dto.CursorPage;
+import com.ecommerce.order_service.dto.OrderResponse;
+import com.ecommerce.order_service.entity.Order;
+import com.ecommerce.order_service.entity.OrderItem;
+import com.ecommerce.order_service.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Read paths load orders and their items in a fixed number of statements, however many orders
+// and items there are
+@DataJpaTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TestcontainersConfiguration.class, OrderService.class})
+class OrderServiceStatementCountTests {
+
+	private static final long USER_ID = 7L;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@MockitoBean
+	private OrderValidationService orderValidationService;
+
+	@MockitoBean
+	private OrderNumberGenerator orderNumberGenerator;
+
+	@MockitoBean
+	private OutboxService outboxService;
+
+	@MockitoBean
+	private OrderHistoryService orderHistoryService;
+
+	@MockitoBean
+	private StockReservationService stockReservationService;
+
+	private Statistics statistics;
+	private Long firstOrderId;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 5; i++) {
+			Order order = orderRepository.save(order("ORD-U" + i, USER_ID, 3));
+			if (firstOrderId == null) {
+				firstOrderId = order.getId();
+			}
+			orderRepository.save(order("ORD-O" + i, USER_ID + 1, 2));
+		}
+		entityManager.flush();
+		// Nothing loaded yet: lazy items would show up as extra statements
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void getOrderByIdIsOneStatement() {
+		OrderResponse order = orderService.getOrderById(firstOrderId);
+
+		assertThat(order.getItems()).hasSize(3);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getOrderByNumberIsOneStatement() {
+		OrderResponse order = orderService.getOrderByNumber("ORD-U0");
+
+		assertThat(order.getItems()).hasSize(3);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getOrdersByUserIdIsTwoStatements() {
+		// Id page, then the page's orders with their items
+		CursorPage<OrderResponse> page = orderService.getOrdersByUserId(USER_ID, null, 20);
+
+		assertThat(page.getItems()).hasSize(5).allSatisfy(order -> assertThat(order.getItems()).hasSize(3));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void getAllOrdersIsTwoStatements() {
+		CursorPage<OrderResponse> page = orderService.getAllOrders(null, 20);
+
+		assertThat(page.getItems()).hasSize(10).allSatisfy(order -> assertThat(order.getItems()).isNotEmpty());
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void aPageWithAnotherPageAfterItIsStillTwoStatements() {
+		CursorPage<OrderResponse> page = orderService.getAllOrders(null, 4);
+
+		assertThat(page.getItems()).hasSize(4);
+		assertThat(page.getNextCursor()).isNotNull();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	private static Order order(String orderNumber, long userId, int items) {
+		Order order = Order.builder()
+				.orderNumber(orderNumber)
+				.userId(userId)
+				.status(Order.OrderStatus.CONFIRMED)
+				.totalAmount(BigDecimal.valueOf(items))
+				.build();
+		for (int i = 0; i < items; i++) {
+			order.addItem(OrderItem.builder()
+					.productId(100L + i)
+					.productName("Product " + i)
+					.quantity(1)
+					.unitPrice(BigDecimal.ONE)
+					.subtotal(BigDecimal.ONE)
+					.build());
+		}
+		return order;
+	}
+}
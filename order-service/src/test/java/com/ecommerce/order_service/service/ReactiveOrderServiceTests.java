@@ -0,0 +1,135 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.order_service.TestcontainersConfiguration;
+import com.ecommerce.order_service.dto.OrderHistoryResponse;
+import com.ecommerce.order_service.dto.OrderItemRequest;
+import com.ecommerce.order_service.dto.OrderRequest;
+import com.ecommerce.order_service.dto.OrderResponse;
+import com.ecommerce.order_service.dto.external.ProductAvailabilityResponse;
+import com.ecommerce.order_service.entity.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// The reactive profile writes the same read model and outbox rows as OrderService, over R2DBC
+@DataR2dbcTest(properties = "spring.cloud.config.enabled=false")
+@ActiveProfiles("reactive")
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TestcontainersConfiguration.class, ReactiveOrderService.class, ReactiveOrderHistoryService.class,
+		ReactiveOutboxService.class, EventEncoder.class})
+class ReactiveOrderServiceTests {
+
+	@Autowired
+	private ReactiveOrderService orderService;
+
+	@Autowired
+	private ReactiveOrderHistoryService orderHistoryService;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@MockitoBean
+	private OrderValidationService orderValidationService;
+
+	@MockitoBean
+	private OrderNumberGenerator orderNumberGenerator;
+
+	@MockitoBean
+	private StockReservationService stockReservationService;
+
+	// Not rolled back, every test has its own user
+	private long userId;
+
+	@BeforeEach
+	void setUp() {
+		userId = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+		when(orderNumberGenerator.generate()).thenReturn("ORD-" + userId);
+		when(orderValidationService.validateOrderAsync(any())).thenReturn(Mono.just(Map.of(
+				1L, product(1L, "10.00"),
+				2L, product(2L, "2.50"))));
+		when(stockReservationService.reserveAsync(anyString(), any())).thenReturn(Mono.empty());
+	}
+
+	@Test
+	void createAndCancelUpdateTheReadModelAndTheOutbox() {
+		OrderResponse created = orderService.createOrder(new OrderRequest(userId, List.of(
+				new OrderItemRequest(1L, 1),
+				new OrderItemRequest(2L, 2)), "Main Street 1")).block();
+
+		// One sequence value per row
+		assertThat(created.getItems()).extracting("id").doesNotHaveDuplicates();
+		OrderHistoryResponse history = orderHistoryService.getHistory(userId).block();
+		assertThat(history.getStatusCounts()).containsExactly(entry(Order.OrderStatus.CONFIRMED, 1));
+		assertThat(history.getLifetimeSpend()).isEqualByComparingTo("15.00");
+		assertThat(history.getRecentOrders()).singleElement()
+				.satisfies(order -> assertThat(order.getItemCount()).isEqualTo(2));
+
+		orderService.cancelOrder(created.getId()).block();
+
+		history = orderHistoryService.getHistory(userId).block();
+		assertThat(history.getStatusCounts()).containsExactly(entry(Order.OrderStatus.CANCELLED, 1));
+		assertThat(history.getLifetimeSpend()).isEqualByComparingTo("0");
+		assertThat(history.getRecentOrders()).singleElement()
+				.satisfies(order -> assertThat(order.getStatus()).isEqualTo(Order.OrderStatus.CANCELLED));
+		assertThat(outboxEventTypes(created.getId())).containsExactly("ORDER_CREATED", "ORDER_CANCELLED");
+	}
+
+	@Test
+	void historyOfOrdersFromBeforeTheReadModelIsBuiltOnRead() {
+		insertOrder(Order.OrderStatus.DELIVERED, "7.00");
+		insertOrder(Order.OrderStatus.CANCELLED, "3.00");
+
+		OrderHistoryResponse history = orderHistoryService.getHistory(userId).block();
+
+		assertThat(history.getStatusCounts()).containsOnly(
+				entry(Order.OrderStatus.DELIVERED, 1),
+				entry(Order.OrderStatus.CANCELLED, 1));
+		assertThat(history.getLifetimeSpend()).isEqualByComparingTo("7.00");
+		assertThat(history.getRecentOrders()).hasSize(2);
+	}
+
+	private List<String> outboxEventTypes(Long orderId) {
+		return databaseClient.sql("SELECT event_type FROM outbox_events WHERE message_key = :key ORDER BY relay_order")
+				.bind("key", orderId.toString())
+				.map(row -> row.get("event_type", String.class))
+				.all()
+				.collectList()
+				.block();
+	}
+
+	private void insertOrder(Order.OrderStatus status, String totalAmount) {
+		databaseClient.sql("INSERT INTO orders (id, order_number, user_id, total_amount, status, shipping_address, " +
+						"created_at, updated_at) VALUES (nextval('orders_seq'), :orderNumber, :userId, :totalAmount, " +
+						":status, 'Main Street 1', :now, :now)")
+				.bind("orderNumber", "ORD-" + status + "-" + userId)
+				.bind("userId", userId)
+				.bind("totalAmount", new BigDecimal(totalAmount))
+				.bind("status", status.name())
+				.bind("now", LocalDateTime.now())
+				.then()
+				.block();
+	}
+
+	private ProductAvailabilityResponse product(Long id, String price) {
+		return new ProductAvailabilityResponse(id, "Product " + id, new BigDecimal(price), 100, "ACTIVE", 1, true);
+	}
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.order_service.service;
+
+import com.ecommerce.common.kafka.KafkaSendGate;
+import com.ecommerce.order_service.TestcontainersConfiguration;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataR2dbcTest(properties = "spring.cloud.config.enabled=false")
+@ActiveProfiles("reactive")
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TestcontainersConfiguration.class, ReactiveOutboxRelay.class})
+class ReactiveOutboxRelayTests {
+
+	@Autowired
+	private ReactiveOutboxRelay outboxRelay;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@MockitoBean
+	private KafkaTemplate<String, byte[]> eventKafkaTemplate;
+
+	@MockitoBean
+	private KafkaSendGate kafkaSendGate;
+
+	@Test
+	void eventsAreSentInRelayOrderAndDeleted() {
+		String key = Long.toString(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
+		List<String> sent = new ArrayList<>();
+		when(kafkaSendGate.send(any(), any(ProducerRecord.class))).thenAnswer(invocation -> {
+			ProducerRecord<String, byte[]> record = invocation.getArgument(1);
+			if (record.key().equals(key)) {
+				sent.add(new String(record.value(), StandardCharsets.UTF_8));
+			}
+			return CompletableFuture.completedFuture(null);
+		});
+		// Two instances' id blocks: the later event got the lower id
+		insert(1_000_000_200L, key, "created");
+		insert(1_000_000_010L, key, "cancelled");
+
+		outboxRelay.relay();
+
+		assertThat(sent).containsExactly("created", "cancelled");
+		assertThat(databaseClient.sql("SELECT count(*) AS pending FROM outbox_events WHERE message_key = :key")
+				.bind("key", key)
+				.map(row -> row.get("pending", Long.class))
+				.one()
+				.block()).isZero();
+	}
+
+	private void insert(long id, String key, String payload) {
+		databaseClient.sql("INSERT INTO outbox_events (id, topic, message_key, event_type, event_id, payload, " +
+						"content_type, created_at) VALUES (:id, 'order-events', :key, 'ORDER_EVENT', :eventId, :payload, " +
+						"'application/json', :now)")
+				.bind("id", id)
+				.bind("key", key)
+				.bind("eventId", UUID.randomUUID())
+				.bind("payload", payload.getBytes(StandardCharsets.UTF_8))
+				.bind("now", LocalDateTime.now())
+				.then()
+				.block();
+	}
+}
@@ -0,0 +1,241 @@
+package com.ecommerce.order_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongHashSetTests {
+
+	// new LongHashSet(8) has 16 slots until the 9th value
+	private static final int SLOTS = 16;
+
+	@Test
+	void addsContainsAndRemoves() {
+		LongHashSet set = new LongHashSet(8);
+
+		assertThat(set.add(42L)).isTrue();
+		assertThat(set.add(42L)).isFalse();
+		assertThat(set.contains(42L)).isTrue();
+		assertThat(set.contains(43L)).isFalse();
+		assertThat(set.size()).isEqualTo(1);
+
+		assertThat(set.remove(43L)).isFalse();
+		assertThat(set.remove(42L)).isTrue();
+		assertThat(set.remove(42L)).isFalse();
+		assertThat(set.contains(42L)).isFalse();
+		assertThat(set.size()).isZero();
+	}
+
+	@Test
+	void zeroAndExtremeValuesAreOrdinaryValues() {
+		LongHashSet set = new LongHashSet(8);
+
+		assertThat(set.contains(0L)).isFalse();
+		assertThat(set.add(0L)).isTrue();
+		assertThat(set.add(-1L)).isTrue();
+		assertThat(set.add(Long.MAX_VALUE)).isTrue();
+		assertThat(set.add(Long.MIN_VALUE + 1)).isTrue();
+
+		assertThat(set.contains(0L)).isTrue();
+		assertThat(set.contains(-1L)).isTrue();
+		assertThat(set.contains(Long.MAX_VALUE)).isTrue();
+		assertThat(set.contains(Long.MIN_VALUE + 1)).isTrue();
+		assertThat(set.remove(0L)).isTrue();
+		assertThat(set.contains(0L)).isFalse();
+		assertThat(set.size()).isEqualTo(3);
+	}
+
+	@Test
+	void rejectsTheEmptySlotMarker() {
+		LongHashSet set = new LongHashSet(8);
+
+		assertThatThrownBy(() -> set.add(Long.MIN_VALUE)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> set.remove(Long.MIN_VALUE)).isInstanceOf(IllegalArgumentException.class);
+		// Empty slots must not read as a stored Long.MIN_VALUE
+		assertThat(set.contains(Long.MIN_VALUE)).isFalse();
+		set.add(1L);
+		assertThat(set.contains(Long.MIN_VALUE)).isFalse();
+	}
+
+	@Test
+	void removesFromACollisionClusterInEveryOrder() {
+		// Four values with home slot 3, then one with home slot 4 pushed behind them
+		List<Long> cluster = valuesWithHome(3, 4);
+		cluster.add(valuesWithHome(4, 1).get(0));
+
+		for (List<Long> order : permutations(cluster)) {
+			assertRemovesInOrder(cluster, order);
+		}
+	}
+
+	@Test
+	void removesFromAClusterWrappingAroundTheTableEnd() {
+		// Home slot 14 and 15 values fill 14, 15, 0 and 1, a home slot 0 value lands in 2
+		List<Long> cluster = valuesWithHome(14, 2);
+		cluster.addAll(valuesWithHome(15, 2));
+		cluster.add(valuesWithHome(0, 1).get(0));
+
+		for (List<Long> order : permutations(cluster)) {
+			assertRemovesInOrder(cluster, order);
+		}
+	}
+
+	@Test
+	void growsAndKeepsEveryValue() {
+		LongHashSet set = new LongHashSet(1);
+
+		for (long value = -5000; value < 5000; value++) {
+			assertThat(set.add(value * 31)).isTrue();
+		}
+		assertThat(set.size()).isEqualTo(10_000);
+		assertThat(LongStream.range(-5000, 5000)).allMatch(value -> set.contains(value * 31));
+		assertThat(set.contains(1L)).isFalse();
+
+		for (long value = -5000; value < 5000; value += 2) {
+			assertThat(set.remove(value * 31)).isTrue();
+		}
+		assertThat(set.size()).isEqualTo(5000);
+		assertThat(LongStream.range(-5000, 5000)).allMatch(value -> set.contains(value * 31) == (value % 2 != 0));
+	}
+
+	@Test
+	void behavesLikeAHashSet() {
+		// Small key range: long clusters, many deletes inside them, resizes along the way
+		Random random = new Random(5);
+		LongHashSet set = new LongHashSet(4);
+		Set<Long> expected = new HashSet<>();
+
+		for (int i = 0; i < 200_000; i++) {
+			long value = random.nextInt(256) - 128;
+			if (random.nextInt(3) == 0) {
+				assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+			} else {
+				assertThat(set.add(value)).isEqualTo(expected.add(value));
+			}
+			assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+		}
+		assertThat(set.size()).isEqualTo(expected.size());
+		for (long value = -128; value < 128; value++) {
+			assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+		}
+	}
+
+	@Test
+	void readersSeeStableValuesWhileTheWriterChurns() throws Exception {
+		LongHashSet set = new LongHashSet(16);
+		// Present for the whole test, or never added: readers must always get the same answer
+		long[] present = LongStream.range(0, 64).map(i -> i * 2).toArray();
+		long[] absent = LongStream.range(0, 64).map(i -> i * 2 + 1).toArray();
+		for (long value : present) {
+			set.add(value);
+		}
+
+		int readers = 4;
+		AtomicBoolean done = new AtomicBoolean();
+		CountDownLatch started = new CountDownLatch(readers);
+		ExecutorService executor = Executors.newFixedThreadPool(readers);
+		try {
+			List<Future<Long>> results = new ArrayList<>();
+			for (int r = 0; r < readers; r++) {
+				results.add(executor.submit(() -> {
+					started.countDown();
+					long reads = 0;
+					while (!done.get()) {
+						for (long value : present) {
+							if (!set.contains(value)) {
+								throw new AssertionError("Missed " + value);
+							}
+						}
+						for (long value : absent) {
+							if (set.contains(value)) {
+								throw new AssertionError("Found " + value);
+							}
+						}
+						reads++;
+					}
+					return reads;
+				}));
+			}
+
+			// Churned values share clusters with the stable ones; the set grows and shrinks
+			// back, moving the stable values on every resize and backward shift
+			started.await();
+			Random random = new Random(7);
+			for (int round = 0; round < 200; round++) {
+				List<Long> churn = new ArrayList<>();
+				for (int i = 0; i < 2000; i++) {
+					long value = 1000 + random.nextInt(1_000_000) * 2L;
+					if (set.add(value)) {
+						churn.add(value);
+					}
+				}
+				churn.forEach(set::remove);
+			}
+			done.set(true);
+
+			for (Future<Long> result : results) {
+				assertThat(result.get()).isPositive();
+			}
+			assertThat(set.size()).isEqualTo(present.length);
+		} finally {
+			done.set(true);
+			executor.shutdownNow();
+		}
+	}
+
+	private static void assertRemovesInOrder(List<Long> values, List<Long> order) {
+		LongHashSet set = new LongHashSet(8);
+		values.forEach(set::add);
+
+		Set<Long> remaining = new HashSet<>(values);
+		for (Long value : order) {
+			assertThat(set.remove(value)).as("remove %s of %s", value, order).isTrue();
+			remaining.remove(value);
+			for (Long other : values) {
+				assertThat(set.contains(other)).as("contains %s after removing %s", other, order)
+						.isEqualTo(remaining.contains(other));
+			}
+		}
+		assertThat(set.size()).isZero();
+	}
+
+	private static List<Long> valuesWithHome(int slot, int count) {
+		List<Long> values = new ArrayList<>();
+		for (long value = 1; values.size() < count; value++) {
+			if ((LongHashSet.hash(value) & (SLOTS - 1)) == slot) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	private static List<List<Long>> permutations(List<Long> values) {
+		if (values.isEmpty()) {
+			return List.of(List.of());
+		}
+		List<List<Long>> permutations = new ArrayList<>();
+		for (Long first : values) {
+			List<Long> rest = new ArrayList<>(values);
+			rest.remove(first);
+			for (List<Long> tail : permutations(rest)) {
+				List<Long> permutation = new ArrayList<>(List.of(first));
+				permutation.addAll(tail);
+				permutations.add(permutation);
+			}
+		}
+		return permutations;
+	}
+}
@@ -24,7 +24,7 @@ public class OrderServiceClient {
     @CircuitBreaker(name = "orderService", fallbackMethod = "hasActiveOrdersForProductFallback")
     @Retry(name = "orderService")
     public boolean hasActiveOrdersForProduct(Long productId) {
-        log.info("Checking if product {} is in active orders via Order Service", productId);
+        log.debug("Checking if product {} is in active orders via Order Service", productId);
 
         Boolean hasActive = webClient.get()
                 .uri("/api/orders/product/{productId}/has-active", productId)
@@ -36,7 +36,7 @@ public class OrderServiceClient {
                 .bodyToMono(Boolean.class)
                 .block();
 
-        log.info("Product {} is in active orders: {}", productId, hasActive);
+        log.debug("Product {} is in active orders: {}", productId, hasActive);
         return Boolean.TRUE.equals(hasActive);
     }
 
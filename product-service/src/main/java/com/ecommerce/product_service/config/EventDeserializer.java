@@ -0,0 +1,85 @@
+package com.ecommerce.product_service.config;
+
+import com.ecommerce.common.event.EventContentTypes;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+// Reads one event type into its record. Event types the consumer doesn't handle (event-type header)
+// are returned without reading the value. Otherwise the content-type header picks the binary decoder,
+// or the streaming JSON reader for JSON and for values without the header (written before it existed).
+// The JSON readers pull only the fields they need and skip the rest, no tree or map is built
+public abstract class EventDeserializer<T> implements Deserializer<T> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String binaryContentType;
+    private final Function<byte[], T> binaryDecoder;
+
+    protected EventDeserializer(String binaryContentType, Function<byte[], T> binaryDecoder) {
+        this.binaryContentType = binaryContentType;
+        this.binaryDecoder = binaryDecoder;
+    }
+
+    protected abstract boolean isHandled(String eventType);
+
+    // Record for an event type that is not handled, only its type is known
+    protected abstract T unhandled(String eventType);
+
+    // Parser is positioned before the value's START_OBJECT
+    protected abstract T readJson(JsonParser parser) throws IOException;
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        String eventType = header(headers, EventContentTypes.EVENT_TYPE_HEADER);
+        if (eventType != null && !isHandled(eventType)) {
+            return unhandled(eventType);
+        }
+
+        String contentType = header(headers, EventContentTypes.HEADER);
+        try {
+            if (contentType == null || EventContentTypes.JSON.equals(contentType)) {
+                try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+                    return readJson(parser);
+                }
+            }
+            if (binaryContentType.equals(contentType)) {
+                return binaryDecoder.apply(data);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Cannot read " + contentType + " record from " + topic, e);
+        }
+        throw new SerializationException("Unsupported content type " + contentType + " on " + topic);
+    }
+
+    protected static void expect(JsonParser parser, JsonToken token) throws IOException {
+        if (parser.nextToken() != token) {
+            throw new IOException("Expected " + token + " but found " + parser.currentToken());
+        }
+    }
+
+    protected static Long nullableLong(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+    }
+
+    private static String header(Headers headers, String name) {
+        Header header = headers == null ? null : headers.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
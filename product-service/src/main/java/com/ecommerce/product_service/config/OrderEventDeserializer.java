@@ -0,0 +1,70 @@
+package com.ecommerce.product_service.config;
+
+import com.ecommerce.common.event.EventContentTypes;
+import com.ecommerce.product_service.event.OrderEvent;
+import com.ecommerce.product_service.event.OrderEventCodec;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderEventDeserializer extends EventDeserializer<OrderEvent> {
+
+    public OrderEventDeserializer() {
+        super(EventContentTypes.ORDER_EVENT_V1, OrderEventCodec::decode);
+    }
+
+    @Override
+    protected boolean isHandled(String eventType) {
+        return OrderEvent.changesStock(eventType);
+    }
+
+    @Override
+    protected OrderEvent unhandled(String eventType) {
+        return new OrderEvent(null, null, eventType, List.of());
+    }
+
+    @Override
+    protected OrderEvent readJson(JsonParser parser) throws IOException {
+        Long orderId = null;
+        String orderNumber = null;
+        String eventType = null;
+        List<OrderEvent.Item> items = new ArrayList<>();
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "orderId" -> orderId = nullableLong(parser);
+                case "orderNumber" -> orderNumber = parser.getValueAsString();
+                case "eventType" -> eventType = parser.getValueAsString();
+                case "items" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            items.add(readItem(parser));
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new OrderEvent(orderId, orderNumber, eventType, items);
+    }
+
+    private static OrderEvent.Item readItem(JsonParser parser) throws IOException {
+        long productId = 0;
+        int quantity = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "productId" -> productId = parser.getValueAsLong();
+                case "quantity" -> quantity = parser.getValueAsInt();
+                default -> parser.skipChildren();
+            }
+        }
+        return new OrderEvent.Item(productId, quantity);
+    }
+}
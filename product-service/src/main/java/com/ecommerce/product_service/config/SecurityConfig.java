@@ -29,6 +29,14 @@ public class SecurityConfig {
                         // Product endpoints - GET is public
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
 
+                        // Batch availability lookup - used by Order Service with the caller's token
+                        .requestMatchers(HttpMethod.POST, "/api/products/batch").authenticated()
+
+                        // Stock reservations - held and released by Order Service with its own client
+                        // credentials token (SERVICE role), never with a customer's token
+                        .requestMatchers(HttpMethod.POST, "/api/products/reservations").hasAnyRole("SERVICE", "ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/products/reservations/*").hasAnyRole("SERVICE", "ADMIN")
+
                         // Product management - Admin only
                         .requestMatchers(HttpMethod.POST, "/api/products").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
@@ -0,0 +1,51 @@
+package com.ecommerce.product_service.config;
+
+import com.ecommerce.common.event.EventContentTypes;
+import com.ecommerce.product_service.event.UserEvent;
+import com.ecommerce.product_service.event.UserEventCodec;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+public class UserEventDeserializer extends EventDeserializer<UserEvent> {
+
+    public UserEventDeserializer() {
+        super(EventContentTypes.USER_EVENT_V1, UserEventCodec::decode);
+    }
+
+    @Override
+    protected boolean isHandled(String eventType) {
+        return UserEvent.changesPreferences(eventType);
+    }
+
+    @Override
+    protected UserEvent unhandled(String eventType) {
+        return new UserEvent(null, null, null, null, null, eventType);
+    }
+
+    @Override
+    protected UserEvent readJson(JsonParser parser) throws IOException {
+        Long userId = null;
+        String firstName = null;
+        String lastName = null;
+        String email = null;
+        String status = null;
+        String eventType = null;
+        expect(parser, JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "userId" -> userId = nullableLong(parser);
+                case "firstName" -> firstName = parser.getValueAsString();
+                case "lastName" -> lastName = parser.getValueAsString();
+                case "email" -> email = parser.getValueAsString();
+                case "status" -> status = parser.getValueAsString();
+                case "eventType" -> eventType = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new UserEvent(userId, firstName, lastName, email, status, eventType);
+    }
+}
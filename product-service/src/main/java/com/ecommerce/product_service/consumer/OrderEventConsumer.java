@@ -1,111 +1,108 @@
 package com.ecommerce.product_service.consumer;
 
+import com.ecommerce.common.event.EventContentTypes;
+import com.ecommerce.product_service.event.OrderEvent;
+import com.ecommerce.product_service.service.ProcessedEventService;
 import com.ecommerce.product_service.service.ProductService;
+import com.ecommerce.product_service.service.StockChangeStriper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventConsumer {
 
-    private final ProductService productService;
-
-    @KafkaListener(topics = "order-events", groupId = "product-service-group")
-    public void consumeOrderEvent(Map<String, Object> event) {
-        log.info("-----------------------------------------");
-        log.info("RECEIVED ORDER EVENT IN PRODUCT SERVICE");
-        log.info("-------------------------------------------");
-
-        String eventType = (String) event.get("eventType");
-        Object orderId = event.get("orderId");
-        String orderNumber = (String) event.get("orderNumber");
-        Object userId = event.get("userId");
-        Object totalAmount = event.get("totalAmount");
-        String status = (String) event.get("status");
-        List<Map<String, Object>> items = (List<Map<String, Object>>) event.get("items");
-
-        log.info("Event Type: {}", eventType);
-        log.info("Order ID: {}", orderId);
-        log.info("Order Number: {}", orderNumber);
-        log.info("User ID: {}", userId);
-        log.info("Total Amount: {}", totalAmount);
-        log.info("Status: {}", status);
-        log.info("Number of Items: {}", items != null ? items.size() : 0);
-
-        try {
-            switch (eventType) {
-                case "ORDER_CREATED":
-                    log.info("Processing ORDER_CREATED");
-                    handleOrderCreated(items);
-                    break;
-
-                case "ORDER_CANCELLED":
-                    log.info("Processing ORDER_CANCELLED");
-                    handleOrderCancelled(items);
-                    break;
-
-                case "ORDER_SHIPPED":
-                    log.info("Processing ORDER_SHIPPED");
-                    log.info("Action: Track shipment (no inventory changes needed)");
-                    break;
-
-                default:
-                    log.warn("Unknown event type: {}", eventType);
-            }
-        } catch (Exception e) {
-            log.error("Error processing order event: ", e);
-        }
-
-        log.info("---------------------------------------------------");
-    }
-
-    private void handleOrderCreated(List<Map<String, Object>> items) {
-        log.info("Reducing inventory for {} products", items.size());
-
-        for (Map<String, Object> item : items) {
+    private final StockChangeStriper stockChangeStriper;
+    private final ProcessedEventService processedEventService;
+    private final MeterRegistry meterRegistry;
+
+    // A whole poll at once: ORDER_CREATED / ORDER_CANCELLED quantities are netted per product and
+    // applied in one transaction, the offsets are committed after it (a failed batch is redelivered).
+    // In parallel mode a failed stripe redelivers from its first event only, see StockChangeStriper.
+    // Redelivered events are dropped by their event-id header
+    @KafkaListener(topics = "order-events", groupId = "product-service-group",
+            containerFactory = "orderEventListenerContainerFactory")
+    public void consumeOrderEvents(List<ConsumerRecord<String, OrderEvent>> records) {
+        meterRegistry.counter("product.order-events.received").increment(records.size());
+        List<ProductService.OrderStockChange> changes = new ArrayList<>();
+        // Index in records of each change
+        List<Integer> recordOfChange = new ArrayList<>();
+        int duplicates = 0;
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, OrderEvent> record = records.get(i);
             try {
-                Long productId = ((Number) item.get("productId")).longValue();
-                Integer quantity = (Integer) item.get("quantity");
-                String productName = (String) item.get("productName");
-
-                log.info("Product: {} (ID: {}), Reducing by: {}", productName, productId, quantity);
-
-                productService.reduceStock(productId, quantity);
-
-                log.info("Stock reduced successfully for product {}", productId);
-            } catch (Exception e) {
-                log.error("Failed to reduce stock for product: {}", item.get("productId"), e);
+                UUID eventId = eventId(record);
+                if (eventId != null && processedEventService.isRecentlyProcessed(eventId)) {
+                    duplicates++;
+                    continue;
+                }
+                Map<Long, Integer> deltas = stockDeltas(record.value());
+                if (!deltas.isEmpty()) {
+                    changes.add(new ProductService.OrderStockChange(eventId, record.value().orderNumber(), deltas));
+                    recordOfChange.add(i);
+                }
+            } catch (RuntimeException e) {
+                meterRegistry.counter("product.order-events.malformed").increment();
+                log.error("Skipping malformed order event at offset {}", record.offset(), e);
             }
         }
+        if (duplicates > 0) {
+            meterRegistry.counter("product.order-events.duplicates").increment(duplicates);
+            log.debug("Skipped {} redelivered order events", duplicates);
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
 
-        log.info("Inventory reduction completed");
+        List<Long> rejected;
+        try {
+            rejected = stockChangeStriper.apply(changes);
+        } catch (StockChangeStriper.StripeFailedException e) {
+            // The error handler commits the offsets of the records before this one and redelivers from it
+            throw new BatchListenerFailedException(e.getMessage(), e.getCause(), recordOfChange.get(e.firstFailedChange()));
+        }
+        meterRegistry.counter("product.order-events.applied").increment(changes.size());
+        log.debug("Applied stock changes of {} order events", changes.size());
+        // One line per batch instead of one per product
+        if (!rejected.isEmpty()) {
+            meterRegistry.counter("product.stock.changes.rejected").increment(rejected.size());
+            log.error("Stock changes not applied to products {}: unknown product or not enough stock", rejected);
+        }
     }
 
-    private void handleOrderCancelled(List<Map<String, Object>> items) {
-        log.info("Restoring inventory for {} products", items.size());
-
-        for (Map<String, Object> item : items) {
-            try {
-                Long productId = ((Number) item.get("productId")).longValue();
-                Integer quantity = (Integer) item.get("quantity");
-                String productName = (String) item.get("productName");
+    // null for events sent before the header existed, those can't be deduplicated
+    private static UUID eventId(ConsumerRecord<String, OrderEvent> record) {
+        Header header = record.headers().lastHeader(EventContentTypes.EVENT_ID_HEADER);
+        return header == null ? null : UUID.fromString(new String(header.value(), StandardCharsets.UTF_8));
+    }
 
-                log.info("Product: {} (ID: {}), Restoring: {}", productName, productId, quantity);
+    private Map<Long, Integer> stockDeltas(OrderEvent event) {
+        if (!OrderEvent.changesStock(event.eventType())) {
+            // ORDER_SHIPPED etc.: no inventory changes
+            log.debug("No stock change for {} of order {}", event.eventType(), event.orderId());
+            return Map.of();
+        }
 
-                productService.restoreStock(productId, quantity);
+        int sign = OrderEvent.ORDER_CREATED.equals(event.eventType()) ? -1 : 1;
 
-                log.info("Stock restored successfully for product {}", productId);
-            } catch (Exception e) {
-                log.error("Failed to restore stock for product: {}", item.get("productId"), e);
-            }
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (OrderEvent.Item item : event.items()) {
+            deltas.merge(item.productId(), sign * item.quantity(), Integer::sum);
         }
-
-        log.info("Inventory restoration completed");
+        return deltas;
     }
-}
\ No newline at end of file
+}
@@ -1,38 +1,36 @@
 package com.ecommerce.product_service.consumer;
 
+import com.ecommerce.product_service.event.UserEvent;
 import com.ecommerce.product_service.service.UserPreferenceService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class UserEventConsumer {
 
     private final UserPreferenceService userPreferenceService;
+    private final MeterRegistry meterRegistry;
+
+    @KafkaListener(topics = "user-events", groupId = "product-service-group",
+            containerFactory = "kafkaListenerContainerFactory")
+    public void consumeUserEvent(UserEvent event) {
+        // USER_UPDATED etc. arrive with only their type set
+        if (!UserEvent.changesPreferences(event.eventType())) {
+            log.debug("No preference change for {}", event.eventType());
+            return;
+        }
 
-    @KafkaListener(topics = "user-events", groupId = "product-service-group")
-    public void consumeUserEvent(Map<String, Object> event) {
-        log.info("============================================");
-        log.info("RECEIVED USER EVENT IN PRODUCT SERVICE");
-        log.info("============================================");
-
-        String eventType = (String) event.get("eventType");
-        Long userId = ((Number) event.get("userId")).longValue();
-        String firstName = (String) event.get("firstName");
-        String lastName = (String) event.get("lastName");
-        String email = (String) event.get("email");
-        String status = (String) event.get("status");
-
-        log.info("Event Type: {}", eventType);
-        log.info("User ID: {}", userId);
-        log.info("Name: {} {}", firstName, lastName);
-        log.info("Email: {}", email);
-        log.info("Status: {}", status);
+        String eventType = event.eventType();
+        Long userId = event.userId();
+        String firstName = event.firstName();
+        String lastName = event.lastName();
+        String email = event.email();
+        log.info("User event {} for user {}", eventType, userId);
 
         try {
             switch (eventType) {
@@ -46,35 +44,21 @@ public class UserEventConsumer {
                 default:
                     log.warn("Unknown event type: {}", eventType);
             }
+            meterRegistry.counter("product.user-events.processed", "type", eventType).increment();
         } catch (Exception e) {
-            log.error("Error processing user event: ", e);
+            meterRegistry.counter("product.user-events.failed", "type", eventType).increment();
+            log.error("Error processing {} for user {}", eventType, userId, e);
         }
-
-        log.info("============================================");
     }
 
     private void handleUserCreated(Long userId, String firstName, String lastName, String email) {
-        log.info("Processing USER_CREATED");
-        log.info("Action: Initialize product recommendations and preferences");
-
         String userName = firstName + " " + lastName;
         userPreferenceService.createUserPreference(userId, userName, email);
-
-        log.info("User preference profile created successfully");
-        log.info("  - User can now save products to wishlist");
-        log.info("  - User can mark favorite categories");
-        log.info("  - Notifications enabled by default");
+        log.debug("Preference profile created for user {}", userId);
     }
 
     private void handleUserDeleted(Long userId) {
-        log.info("Processing USER_DELETED");
-        log.info("Action: Clean up user data and preferences");
-
         userPreferenceService.deleteUserPreference(userId);
-
-        log.info("User data cleaned up successfully");
-        log.info("  - Wishlist removed");
-        log.info("  - Favorite categories cleared");
-        log.info("  - User preferences deleted");
+        log.debug("Preferences of user {} deleted", userId);
     }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.ecommerce.product_service.controller;
 
+import com.ecommerce.product_service.dto.CursorPage;
+import com.ecommerce.product_service.dto.ProductAvailabilityResponse;
+import com.ecommerce.product_service.dto.ProductBatchRequest;
 import com.ecommerce.product_service.dto.ProductRequest;
 import com.ecommerce.product_service.dto.ProductResponse;
+import com.ecommerce.product_service.dto.StockBucketsRequest;
 import com.ecommerce.product_service.dto.StockUpdateRequest;
 import com.ecommerce.product_service.service.ProductService;
 import jakarta.validation.Valid;
@@ -33,15 +37,19 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts();
+    public ResponseEntity<CursorPage<ProductResponse>> getAllProducts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<ProductResponse> products = productService.getAllProducts(after, size);
         return ResponseEntity.ok(products);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductResponse>> getProductsByCategory(
-            @PathVariable String category) {
-        List<ProductResponse> products = productService.getProductsByCategory(category);
+    public ResponseEntity<CursorPage<ProductResponse>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<ProductResponse> products = productService.getProductsByCategory(category, after, size);
         return ResponseEntity.ok(products);
     }
 
@@ -68,6 +76,22 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    // Endpoint for Order Service to reduce stock for all lines of an order, all or nothing
+    @PutMapping("/reduce-stock")
+    public ResponseEntity<List<ProductResponse>> reduceStock(@Valid @RequestBody ProductBatchRequest request) {
+        List<ProductResponse> products = productService.reduceStock(request);
+        return ResponseEntity.ok(products);
+    }
+
+    // Split a hot product's stock over several rows, concurrent orders then lock different rows
+    @PutMapping("/{id}/stock-buckets")
+    public ResponseEntity<ProductResponse> splitStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockBucketsRequest request) {
+        ProductResponse response = productService.splitStock(id, request.getBuckets());
+        return ResponseEntity.ok(response);
+    }
+
     // Endpoint to check stock availability
     @GetMapping("/{id}/in-stock")
     public ResponseEntity<Boolean> isInStock(
@@ -76,4 +100,12 @@ public class ProductController {
         boolean inStock = productService.isInStock(id, quantity);
         return ResponseEntity.ok(inStock);
     }
+
+    // Endpoint for Order Service to look up and check stock for many products at once
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductAvailabilityResponse>> getProductsAvailability(
+            @Valid @RequestBody ProductBatchRequest request) {
+        List<ProductAvailabilityResponse> products = productService.getProductsAvailability(request);
+        return ResponseEntity.ok(products);
+    }
 }
@@ -0,0 +1,41 @@
+package com.ecommerce.product_service.controller;
+
+import com.ecommerce.product_service.dto.ProductBatchRequest;
+import com.ecommerce.product_service.dto.StockReservationRequest;
+import com.ecommerce.product_service.dto.StockReservationResponse;
+import com.ecommerce.product_service.service.StockReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Used by Order Service: stock is held from order creation until product-service applies the order's
+// ORDER_CREATED event, or the hold expires
+@RestController
+@RequestMapping("/api/products/reservations")
+@RequiredArgsConstructor
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    // All lines or none, 400 naming the first short product
+    @PostMapping
+    public ResponseEntity<StockReservationResponse> reserve(@Valid @RequestBody StockReservationRequest request) {
+        // Same product may appear on several lines, held once for the total
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (ProductBatchRequest.Item item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        StockReservationResponse response = stockReservationService.reserve(request.getReservationId(), quantities);
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{reservationId}")
+    public ResponseEntity<Void> release(@PathVariable String reservationId) {
+        stockReservationService.release(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.product_service.dto;
+
+import com.ecommerce.product_service.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAvailabilityResponse {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private Product.ProductStatus status;
+    private Integer requestedQuantity;
+    private boolean inStock;
+
+    public static ProductAvailabilityResponse fromEntity(Product product, int requestedQuantity) {
+        return ProductAvailabilityResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .stockQuantity(product.getTotalStock())
+                .status(product.getStatus())
+                .requestedQuantity(requestedQuantity)
+                .inStock(product.getTotalStock() >= requestedQuantity)
+                .build();
+    }
+}
@@ -20,6 +20,7 @@ public class ProductResponse {
     private String description;
     private BigDecimal price;
     private Integer stockQuantity;
+    private Integer stockBuckets;
     private String category;
     private String skuCode;
     private Product.ProductStatus status;
@@ -31,7 +32,8 @@ public class ProductResponse {
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
-                .stockQuantity(product.getStockQuantity())
+                .stockQuantity(product.getTotalStock())
+                .stockBuckets(product.getStockBuckets())
                 .category(product.getCategory())
                 .skuCode(product.getSkuCode())
                 .status(product.getStatus())
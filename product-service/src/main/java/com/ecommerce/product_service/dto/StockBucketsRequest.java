@@ -0,0 +1,20 @@
+package com.ecommerce.product_service.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBucketsRequest {
+
+    // 0: not split
+    @NotNull(message = "Buckets is required")
+    @Min(value = 0, message = "Buckets must be at least 0")
+    @Max(value = 64, message = "Buckets must be at most 64")
+    private Integer buckets;
+}
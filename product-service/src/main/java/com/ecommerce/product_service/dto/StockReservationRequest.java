@@ -0,0 +1,26 @@
+package com.ecommerce.product_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+
+    // The order number: ORDER_CREATED / ORDER_CANCELLED of that order end the reservation
+    @NotBlank(message = "Reservation ID is required")
+    @Size(max = 64, message = "Reservation ID must be at most 64 characters")
+    private String reservationId;
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<ProductBatchRequest.Item> items;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+
+    private String reservationId;
+    private Instant expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Kafka event (event-id header) whose effect is committed, written in the same transaction as the effect
+@Entity
+// Indexes are created by the Flyway migrations (db/migration), listed here for reference
+@Table(name = "processed_events", indexes = {
+        @Index(name = "idx_processed_events_processed_at", columnList = "processedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEvent {
+
+    @Id
+    private UUID eventId;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+}
@@ -6,13 +6,18 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+// Indexes are created by the Flyway migrations (db/migration), listed here for reference
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_id", columnList = "category, id"),
+        @Index(name = "idx_products_status", columnList = "status")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -32,9 +37,19 @@ public class Product {
     @Column(nullable = false)
     private BigDecimal price;
 
+    // For split products only the units not yet moved into a bucket, see getTotalStock()
     @Column(nullable = false)
     private Integer stockQuantity;
 
+    // > 0: the stock is split over this many product_stock_buckets rows (hot products, StockBucketService)
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer stockBuckets = 0;
+
+    // Units in product_stock_buckets, read with the product (primary key range, empty unless split)
+    @Formula("(SELECT coalesce(sum(b.quantity), 0) FROM product_stock_buckets b WHERE b.product_id = id)")
+    private Integer bucketedQuantity;
+
     private String category;
 
     @Column(unique = true)
@@ -51,6 +66,11 @@ public class Product {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // The product's stock, split or not
+    public int getTotalStock() {
+        return stockQuantity + (bucketedQuantity == null ? 0 : bucketedQuantity);
+    }
+
     public enum ProductStatus {
         ACTIVE, INACTIVE, OUT_OF_STOCK
     }
@@ -0,0 +1,35 @@
+package com.ecommerce.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Part of a split product's stock (Product.stockBuckets > 0), see StockBucketService
+@Entity
+@Table(name = "product_stock_buckets")
+@IdClass(ProductStockBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockBucket {
+
+    @Id
+    private Long productId;
+
+    @Id
+    private Integer bucket;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private Integer bucket;
+    }
+}
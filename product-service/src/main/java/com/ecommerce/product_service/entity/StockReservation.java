@@ -0,0 +1,44 @@
+package com.ecommerce.product_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// One product line of a stock reservation (StockReservationService), held until expiresAt
+@Entity
+// Indexes are created by the Flyway migrations (db/migration), listed here for reference
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_stock_reservations_product_id", columnList = "productId, expiresAt")
+})
+@IdClass(StockReservation.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    @Id
+    @Column(length = 64)
+    private String reservationId;
+
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String reservationId;
+        private Long productId;
+    }
+}
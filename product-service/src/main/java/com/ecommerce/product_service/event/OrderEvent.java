@@ -0,0 +1,18 @@
+package com.ecommerce.product_service.event;
+
+import java.util.List;
+
+// The fields of order-service's OrderEvent that product-service uses
+public record OrderEvent(Long orderId, String orderNumber, String eventType, List<Item> items) {
+
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+    public static final String ORDER_CANCELLED = "ORDER_CANCELLED";
+
+    public record Item(long productId, int quantity) {
+    }
+
+    // Only these types change stock, the others are not read past the event-type header
+    public static boolean changesStock(String eventType) {
+        return ORDER_CREATED.equals(eventType) || ORDER_CANCELLED.equals(eventType);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.product_service.event;
+
+import com.ecommerce.common.event.BinaryEventReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ecommerce.common.event.OrderEventFields.*;
+
+// Reads order-service's binary order events (OrderEventFields, EventContentTypes.ORDER_EVENT_V1).
+// Fields product-service doesn't need are skipped
+public final class OrderEventCodec {
+
+    private OrderEventCodec() {
+    }
+
+    public static OrderEvent decode(byte[] data) {
+        Long orderId = null;
+        String orderNumber = null;
+        String eventType = null;
+        List<OrderEvent.Item> items = new ArrayList<>();
+        BinaryEventReader reader = new BinaryEventReader(data);
+        while (reader.next()) {
+            switch (reader.field()) {
+                case ORDER_ID -> orderId = reader.readLong();
+                case ORDER_NUMBER -> orderNumber = reader.readString();
+                case ITEMS -> items.add(decodeItem(reader.readMessage()));
+                case EVENT_TYPE -> eventType = reader.readString();
+                default -> reader.skip();
+            }
+        }
+        return new OrderEvent(orderId, orderNumber, eventType, items);
+    }
+
+    private static OrderEvent.Item decodeItem(BinaryEventReader reader) {
+        long productId = 0;
+        int quantity = 0;
+        while (reader.next()) {
+            switch (reader.field()) {
+                case ITEM_PRODUCT_ID -> productId = reader.readLong();
+                case ITEM_QUANTITY -> quantity = reader.readInt();
+                default -> reader.skip();
+            }
+        }
+        return new OrderEvent.Item(productId, quantity);
+    }
+}
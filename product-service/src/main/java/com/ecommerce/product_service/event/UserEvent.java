@@ -0,0 +1,13 @@
+package com.ecommerce.product_service.event;
+
+// The fields of user-service's UserEvent that product-service uses
+public record UserEvent(Long userId, String firstName, String lastName, String email, String status, String eventType) {
+
+    public static final String USER_CREATED = "USER_CREATED";
+    public static final String USER_DELETED = "USER_DELETED";
+
+    // Only these types touch user preferences, the others are not read past the event-type header
+    public static boolean changesPreferences(String eventType) {
+        return USER_CREATED.equals(eventType) || USER_DELETED.equals(eventType);
+    }
+}
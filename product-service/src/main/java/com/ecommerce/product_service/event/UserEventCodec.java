@@ -0,0 +1,35 @@
+package com.ecommerce.product_service.event;
+
+import com.ecommerce.common.event.BinaryEventReader;
+
+import static com.ecommerce.common.event.UserEventFields.*;
+
+// Reads user-service's binary user events (UserEventFields, EventContentTypes.USER_EVENT_V1).
+// Fields product-service doesn't need are skipped
+public final class UserEventCodec {
+
+    private UserEventCodec() {
+    }
+
+    public static UserEvent decode(byte[] data) {
+        Long userId = null;
+        String firstName = null;
+        String lastName = null;
+        String email = null;
+        String status = null;
+        String eventType = null;
+        BinaryEventReader reader = new BinaryEventReader(data);
+        while (reader.next()) {
+            switch (reader.field()) {
+                case USER_ID -> userId = reader.readLong();
+                case FIRST_NAME -> firstName = reader.readString();
+                case LAST_NAME -> lastName = reader.readString();
+                case EMAIL -> email = reader.readString();
+                case STATUS -> status = reader.readString();
+                case EVENT_TYPE -> eventType = reader.readString();
+                default -> reader.skip();
+            }
+        }
+        return new UserEvent(userId, firstName, lastName, email, status, eventType);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.product_service.repository;
+
+import com.ecommerce.product_service.entity.ProcessedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, UUID> {
+
+    // Records the ids in one statement, returns the ones that were not recorded before
+    @Query(value = "WITH inserted AS (INSERT INTO processed_events (event_id, processed_at) " +
+            "SELECT DISTINCT id, now() FROM unnest(CAST(:eventIds AS uuid[])) AS t(id) " +
+            "ON CONFLICT (event_id) DO NOTHING RETURNING event_id) " +
+            "SELECT event_id FROM inserted", nativeQuery = true)
+    List<UUID> insertNew(@Param("eventIds") UUID[] eventIds);
+
+    @Query(value = "SELECT event_id FROM processed_events WHERE event_id = ANY(CAST(:eventIds AS uuid[]))",
+            nativeQuery = true)
+    List<UUID> findProcessed(@Param("eventIds") UUID[] eventIds);
+
+    // idx_processed_events_processed_at
+    @Modifying
+    @Query(value = "DELETE FROM processed_events WHERE processed_at < :cutoff", nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,7 +1,11 @@
 package com.ecommerce.product_service.repository;
 
 import com.ecommerce.product_service.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,11 +14,59 @@ import java.util.Optional;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Units in the buckets of a split product, 0 for the others
+    String BUCKETED_QUANTITY = "(SELECT coalesce(sum(b.quantity), 0) FROM product_stock_buckets b WHERE b.product_id = products.id)";
+    String BUCKETED_QUANTITY_OF_P = "(SELECT coalesce(sum(b.quantity), 0) FROM product_stock_buckets b WHERE b.product_id = p.id)";
+
     Optional<Product> findBySkuCode(String skuCode);
 
     List<Product> findByCategory(String category);
 
+    // Keyset pages: primary key index
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Keyset pages: idx_products_category_id
+    List<Product> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Long afterId, Limit limit);
+
     List<Product> findByStatus(Product.ProductStatus status);
 
     boolean existsBySkuCode(String skuCode);
-}
\ No newline at end of file
+
+    // Net stock change in one statement (no read-modify-write), status follows the new quantity
+    // (with a split product's buckets). Updates nothing when the product doesn't exist or the stock would go negative
+    @Modifying
+    @Query(value = "UPDATE products SET stock_quantity = stock_quantity + :delta, " +
+            "status = CASE WHEN stock_quantity + :delta + " + BUCKETED_QUANTITY + " = 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN status = 'OUT_OF_STOCK' THEN 'ACTIVE' ELSE status END, " +
+            "updated_at = now() " +
+            "WHERE id = :productId AND stock_quantity + :delta >= 0", nativeQuery = true)
+    int applyStockDelta(@Param("productId") Long productId, @Param("delta") int delta);
+
+    // All lines of an order in one statement: the rows are locked in id order first (no deadlock
+    // between orders sharing products), then every line with enough stock is decremented.
+    // Returns the ids of the decremented products, the missing ones don't exist or had too little stock
+    @Query(value = "WITH lines AS (SELECT * FROM unnest(CAST(:productIds AS bigint[]), CAST(:quantities AS integer[])) " +
+            "AS l(product_id, quantity)), " +
+            "locked AS MATERIALIZED (SELECT p.id FROM products p JOIN lines l ON l.product_id = p.id " +
+            "ORDER BY p.id FOR UPDATE OF p) " +
+            "UPDATE products p SET stock_quantity = p.stock_quantity - l.quantity, " +
+            "status = CASE WHEN p.stock_quantity - l.quantity + " + BUCKETED_QUANTITY_OF_P + " = 0 THEN 'OUT_OF_STOCK' ELSE p.status END, " +
+            "updated_at = now() " +
+            "FROM lines l JOIN locked k ON k.id = l.product_id " +
+            "WHERE p.id = l.product_id AND p.stock_quantity >= l.quantity " +
+            "RETURNING p.id", nativeQuery = true)
+    List<Long> decrementStock(@Param("productIds") Long[] productIds, @Param("quantities") Integer[] quantities);
+
+    // Row lock only, taken after the product's bucket rows (StockBucketService's lock order)
+    @Query(value = "SELECT id FROM products WHERE id = :productId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("productId") Long productId);
+
+    // Status of a split product after its buckets changed. Writes only when the status has to change,
+    // a product with stock left doesn't get its row locked
+    @Modifying
+    @Query(value = "UPDATE products SET status = CASE WHEN stock_quantity + " + BUCKETED_QUANTITY + " = 0 " +
+            "THEN 'OUT_OF_STOCK' ELSE 'ACTIVE' END, updated_at = now() " +
+            "WHERE id = :productId AND CASE WHEN stock_quantity + " + BUCKETED_QUANTITY + " = 0 " +
+            "THEN status <> 'OUT_OF_STOCK' ELSE status = 'OUT_OF_STOCK' END", nativeQuery = true)
+    int refreshStockStatus(@Param("productId") Long productId);
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.ecommerce.product_service.repository;
+
+import com.ecommerce.product_service.entity.ProductStockBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductStockBucketRepository extends JpaRepository<ProductStockBucket, ProductStockBucket.Key> {
+
+    // Per split product (and products switched back with buckets left): what the rebalancer looks at
+    interface BucketStats {
+        Long getProductId();
+        Integer getStockQuantity();
+        Integer getStockBuckets();
+        String getStatus();
+        Integer getBucketCount();
+        Integer getMinQuantity();
+        Integer getMaxQuantity();
+        Integer getBucketedQuantity();
+    }
+
+    // Takes the units from one random bucket that has enough, skipping buckets locked by other
+    // orders: concurrent orders for the same product don't wait for each other. The bucket is picked once
+    // (MATERIALIZED), a subquery rescanned per row would lock a random bucket each time.
+    // 0 when no unlocked bucket has enough
+    @Modifying
+    @Query(value = "WITH b AS MATERIALIZED (SELECT bucket FROM product_stock_buckets " +
+            "WHERE product_id = :productId AND quantity >= :quantity ORDER BY random() LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "UPDATE product_stock_buckets s SET quantity = s.quantity - :quantity " +
+            "FROM b WHERE s.product_id = :productId AND s.bucket = b.bucket", nativeQuery = true)
+    int takeFromOneBucket(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Same when every bucket with enough is locked by other orders: waits for one of them. 0 when no
+    // bucket has enough
+    @Modifying
+    @Query(value = "WITH b AS MATERIALIZED (SELECT bucket FROM product_stock_buckets " +
+            "WHERE product_id = :productId AND quantity >= :quantity ORDER BY random() LIMIT 1 FOR UPDATE) " +
+            "UPDATE product_stock_buckets s SET quantity = s.quantity - :quantity " +
+            "FROM b WHERE s.product_id = :productId AND s.bucket = b.bucket", nativeQuery = true)
+    int takeFromOneBucketWaiting(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Fallback when no single bucket has enough, after lockAll: takes the units bucket after bucket.
+    // 0 when all buckets together don't have enough.
+    // Locking in the same statement isn't enough: a bucket changed by an order that committed while
+    // the lock waited would be locked at its new quantity but updated from the one in the snapshot
+    @Modifying
+    @Query(value = "WITH running AS (SELECT bucket, quantity, sum(quantity) OVER (ORDER BY bucket) - quantity AS before, " +
+            "sum(quantity) OVER () AS total FROM product_stock_buckets WHERE product_id = :productId) " +
+            "UPDATE product_stock_buckets s SET quantity = s.quantity - LEAST(r.quantity, :quantity - r.before) " +
+            "FROM running r " +
+            "WHERE s.product_id = :productId AND s.bucket = r.bucket AND r.quantity > 0 AND r.before < :quantity " +
+            "AND r.total >= :quantity", nativeQuery = true)
+    int takeFromAllBuckets(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Every bucket of the product, in bucket order
+    @Query(value = "SELECT bucket FROM product_stock_buckets WHERE product_id = :productId ORDER BY bucket FOR UPDATE",
+            nativeQuery = true)
+    List<Integer> lockAll(@Param("productId") Long productId);
+
+    // Returned units go to a random bucket. 0 when the product is not split
+    @Modifying
+    @Query(value = "UPDATE product_stock_buckets SET quantity = quantity + :quantity " +
+            "WHERE product_id = :productId AND bucket = (SELECT CAST(floor(random() * stock_buckets) AS integer) " +
+            "FROM products WHERE id = :productId AND stock_buckets > 0)", nativeQuery = true)
+    int addToRandomBucket(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Query(value = "SELECT * FROM product_stock_buckets WHERE product_id = :productId ORDER BY bucket FOR UPDATE",
+            nativeQuery = true)
+    List<ProductStockBucket> findAllForUpdate(@Param("productId") Long productId);
+
+    // idx_products_stock_buckets, then the buckets by primary key
+    @Query(value = "SELECT p.id AS \"productId\", p.stock_quantity AS \"stockQuantity\", p.stock_buckets AS \"stockBuckets\", " +
+            "p.status AS \"status\", CAST(count(b.bucket) AS integer) AS \"bucketCount\", " +
+            "coalesce(min(b.quantity), 0) AS \"minQuantity\", coalesce(max(b.quantity), 0) AS \"maxQuantity\", " +
+            "CAST(coalesce(sum(b.quantity), 0) AS integer) AS \"bucketedQuantity\" " +
+            "FROM products p LEFT JOIN product_stock_buckets b ON b.product_id = p.id " +
+            "WHERE p.stock_buckets > 0 OR p.id IN (SELECT DISTINCT product_id FROM product_stock_buckets) " +
+            "GROUP BY p.id, p.stock_quantity, p.stock_buckets, p.status", nativeQuery = true)
+    List<BucketStats> findBucketStats();
+}
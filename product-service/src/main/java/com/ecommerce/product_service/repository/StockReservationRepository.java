@@ -0,0 +1,57 @@
+package com.ecommerce.product_service.repository;
+
+import com.ecommerce.product_service.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+// The rows are the holds, shared by every instance. Expiry is always decided by the database clock
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, StockReservation.Key> {
+
+    // Serializes reservations of one product until the transaction ends, across instances. The
+    // product row is not locked, stock updates don't wait for reservations.
+    // The only advisory locks in this database, keyed by product id
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:productId)", nativeQuery = true)
+    int lockProduct(@Param("productId") Long productId);
+
+    // Total stock (buckets included) minus the unexpired holds, idx_stock_reservations_product_id
+    @Query(value = "SELECT CAST(p.stock_quantity + " + ProductRepository.BUCKETED_QUANTITY_OF_P + " - " +
+            "(SELECT coalesce(sum(r.quantity), 0) FROM stock_reservations r " +
+            "WHERE r.product_id = p.id AND r.expires_at > now()) AS integer) " +
+            "FROM products p WHERE p.id = :productId", nativeQuery = true)
+    Optional<Integer> findAvailableStock(@Param("productId") Long productId);
+
+    // Primary key prefix
+    @Query(value = "SELECT max(expires_at) FROM stock_reservations " +
+            "WHERE reservation_id = :reservationId AND expires_at > now()", nativeQuery = true)
+    Optional<Instant> findExpiresAt(@Param("reservationId") String reservationId);
+
+    // All lines in one statement, expiring ttlSeconds from now on the database clock
+    @Modifying
+    @Query(value = "INSERT INTO stock_reservations (reservation_id, product_id, quantity, expires_at) " +
+            "SELECT :reservationId, l.product_id, l.quantity, now() + make_interval(secs => :ttlSeconds) " +
+            "FROM unnest(CAST(:productIds AS bigint[]), CAST(:quantities AS integer[])) AS l(product_id, quantity) " +
+            "ON CONFLICT (reservation_id, product_id) DO UPDATE SET quantity = EXCLUDED.quantity, " +
+            "expires_at = EXCLUDED.expires_at", nativeQuery = true)
+    int insertAll(@Param("reservationId") String reservationId,
+                  @Param("productIds") Long[] productIds,
+                  @Param("quantities") Integer[] quantities,
+                  @Param("ttlSeconds") double ttlSeconds);
+
+    // Number of reservations ended, not lines. Primary key prefix
+    @Query(value = "WITH deleted AS (DELETE FROM stock_reservations " +
+            "WHERE reservation_id = ANY(CAST(:reservationIds AS varchar[])) RETURNING reservation_id) " +
+            "SELECT count(DISTINCT reservation_id) FROM deleted", nativeQuery = true)
+    long deleteAllByReservationId(@Param("reservationIds") String[] reservationIds);
+
+    // Housekeeping only, expired rows no longer count anyway. idx_stock_reservations_expires_at
+    @Query(value = "WITH deleted AS (DELETE FROM stock_reservations WHERE expires_at <= now() " +
+            "RETURNING reservation_id) SELECT count(DISTINCT reservation_id) FROM deleted", nativeQuery = true)
+    long deleteExpired();
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.common.kafka.KafkaSendGate;
+import com.ecommerce.product_service.event.ProductEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KafkaProducerService {
+
+    private final KafkaTemplate<String, ProductEvent> productEventKafkaTemplate;
+    private final KafkaSendGate kafkaSendGate;
+    private static final String PRODUCT_TOPIC = "product-events";
+
+    // Sent only once the product change is committed, a rolled back change publishes nothing
+    public void sendProductEventAfterCommit(ProductEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendProductEvent(event);
+                }
+            });
+        } else {
+            sendProductEvent(event);
+        }
+    }
+
+    public void sendProductEvent(ProductEvent event) {
+        log.debug("Sending PRODUCT event {} for product {}", event.getEventType(), event.getProductId());
+        kafkaSendGate.send(productEventKafkaTemplate, PRODUCT_TOPIC, event.getProductId().toString(), event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to send product event {} for product {}",
+                                event.getEventType(), event.getProductId(), ex);
+                    }
+                });
+    }
+}
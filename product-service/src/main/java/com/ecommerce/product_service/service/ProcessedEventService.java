@@ -0,0 +1,93 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.product_service.repository.ProcessedEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Drops redelivered Kafka events. processed_events is the source of truth, its rows are written in
+// the same transaction as the event's effect. An LRU of recently committed ids in front of it
+// drops the usual redeliveries (same instance, after a rebalance or a retried batch) without a query
+@Service
+@Slf4j
+public class ProcessedEventService {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final Duration retention;
+    private final Map<UUID, Boolean> recentlyProcessed;
+
+    public ProcessedEventService(ProcessedEventRepository processedEventRepository,
+                                 @Value("${product.processed-events.retention:7d}") Duration retention,
+                                 @Value("${product.processed-events.cache-size:100000}") int cacheSize) {
+        this.processedEventRepository = processedEventRepository;
+        this.retention = retention;
+        this.recentlyProcessed = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // Seen by this instance and committed: certainly a duplicate. false doesn't mean new
+    public boolean isRecentlyProcessed(UUID eventId) {
+        return recentlyProcessed.containsKey(eventId);
+    }
+
+    // Ids among these that were processed before (committed)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<UUID> findProcessed(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(processedEventRepository.findProcessed(eventIds.toArray(UUID[]::new)));
+    }
+
+    // Must join the transaction that applied (or rejected) the events, after it did. An id recorded in
+    // the meantime by a concurrent consumer (overlap during a rebalance) fails the transaction: its
+    // effect would be applied twice. The redelivered batch then skips it
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        List<UUID> inserted = processedEventRepository.insertNew(eventIds.toArray(UUID[]::new));
+        if (inserted.size() < new HashSet<>(eventIds).size()) {
+            throw new IllegalStateException("Events processed concurrently by another consumer: "
+                    + eventIds.stream().filter(eventId -> !inserted.contains(eventId)).toList());
+        }
+        // Only committed ids go to the cache, a rolled back batch must be processed again
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventIds.forEach(eventId -> recentlyProcessed.put(eventId, Boolean.TRUE));
+            }
+        });
+    }
+
+    // Retention must be longer than any redelivery can be late (consumer downtime, replays)
+    @Scheduled(fixedDelayString = "${product.processed-events.prune-interval:3600000}")
+    @Transactional
+    public void prune() {
+        int deleted = processedEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Pruned {} processed event ids older than {}", deleted, retention);
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package com.ecommerce.product_service.service;
 
 import com.ecommerce.product_service.client.OrderServiceClient;
+import com.ecommerce.product_service.dto.CursorPage;
+import com.ecommerce.product_service.dto.ProductAvailabilityResponse;
+import com.ecommerce.product_service.dto.ProductBatchRequest;
 import com.ecommerce.product_service.dto.ProductRequest;
 import com.ecommerce.product_service.dto.ProductResponse;
 import com.ecommerce.product_service.entity.Product;
+import com.ecommerce.product_service.event.ProductEvent;
 import com.ecommerce.product_service.exception.InsufficientStockException;
 import com.ecommerce.product_service.exception.ProductNotFoundException;
 import com.ecommerce.product_service.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +38,15 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final OrderServiceClient orderServiceClient;
+    private final KafkaProducerService kafkaProducerService;
+    private final ProcessedEventService processedEventService;
+    private final StockReservationService stockReservationService;
+    private final StockBucketService stockBucketService;
+
+    // Stock change of one order event, eventId is null for events sent without an event-id header.
+    // reservationId is the order number, the order's stock reservation ends with the change
+    public record OrderStockChange(UUID eventId, String reservationId, Map<Long, Integer> deltas) {
+    }
 
     public ProductResponse createProduct(ProductRequest request) {
         log.info("Creating product with SKU: {}", request.getSkuCode());
@@ -42,13 +67,14 @@ public class ProductService {
 
         Product savedProduct = productRepository.save(product);
         log.info("Product created with id: {}", savedProduct.getId());
+        publishProductEvent(savedProduct, "PRODUCT_CREATED");
 
         return ProductResponse.fromEntity(savedProduct);
     }
 
     @Transactional(readOnly = true)
     public ProductResponse getProductById(Long id) {
-        log.info("Fetching product with id: {}", id);
+        log.debug("Fetching product with id: {}", id);
 
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
@@ -57,23 +83,23 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAllProducts() {
-        log.info("Fetching all products");
+    public CursorPage<ProductResponse> getAllProducts(Long after, int size) {
+        log.debug("Fetching products after id: {}", after);
 
-        return productRepository.findAll()
-                .stream()
-                .map(ProductResponse::fromEntity)
-                .toList();
+        int pageSize = CursorPage.pageSize(size);
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.startAfter(after), Limit.of(pageSize + 1));
+        return CursorPage.of(products, pageSize, Product::getId, ProductResponse::fromEntity);
     }
 
     @Transactional(readOnly = true)
-    public List<ProductResponse> getProductsByCategory(String category) {
-        log.info("Fetching products by category: {}", category);
+    public CursorPage<ProductResponse> getProductsByCategory(String category, Long after, int size) {
+        log.debug("Fetching products by category: {} after id: {}", category, after);
 
-        return productRepository.findByCategory(category)
-                .stream()
-                .map(ProductResponse::fromEntity)
-                .toList();
+        int pageSize = CursorPage.pageSize(size);
+        List<Product> products = productRepository.findByCategoryAndIdGreaterThanOrderByIdAsc(
+                category, CursorPage.startAfter(after), Limit.of(pageSize + 1));
+        return CursorPage.of(products, pageSize, Product::getId, ProductResponse::fromEntity);
     }
 
     public ProductResponse updateProduct(Long id, ProductRequest request) {
@@ -85,8 +111,13 @@ public class ProductService {
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
-        product.setStockQuantity(request.getStockQuantity());
         product.setCategory(request.getCategory());
+        if (product.getStockBuckets() > 0) {
+            // Split product: the new quantity is spread over its buckets
+            stockBucketService.replaceStock(product, request.getStockQuantity());
+        } else {
+            product.setStockQuantity(request.getStockQuantity());
+        }
 
         // Update status based on stock
         if (request.getStockQuantity() == 0) {
@@ -97,6 +128,7 @@ public class ProductService {
 
         Product updatedProduct = productRepository.save(product);
         log.info("Product updated successfully");
+        publishProductEvent(updatedProduct, "PRODUCT_UPDATED");
 
         return ProductResponse.fromEntity(updatedProduct);
     }
@@ -119,48 +151,170 @@ public class ProductService {
 
         productRepository.deleteById(id);
         log.info("Product deleted successfully");
+        kafkaProducerService.sendProductEventAfterCommit(ProductEvent.builder()
+                .productId(id)
+                .eventType("PRODUCT_DELETED")
+                .eventTimestamp(LocalDateTime.now())
+                .build());
     }
 
     // Method for Order Service to reduce stock
     public ProductResponse reduceStock(Long productId, int quantity) {
-        log.info("Reducing stock for product {}, quantity: {}", productId, quantity);
+        // Check and decrement in one statement, concurrent orders can't both take the last unit
+        if (!stockBucketService.applyStockDelta(productId, -quantity)) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException(productId));
+            throw new InsufficientStockException(productId, quantity, product.getTotalStock());
+        }
 
-        Product product = productRepository.findById(productId)
+        Product updatedProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException(productId));
+        log.info("Stock of product {} reduced by {} to {}", productId, quantity, updatedProduct.getTotalStock());
+        publishProductEvent(updatedProduct, "STOCK_CHANGED");
 
-        if (product.getStockQuantity() < quantity) {
-            throw new InsufficientStockException(productId, quantity, product.getStockQuantity());
-        }
-
-        product.setStockQuantity(product.getStockQuantity() - quantity);
+        return ProductResponse.fromEntity(updatedProduct);
+    }
 
-        if (product.getStockQuantity() == 0) {
-            product.setStatus(Product.ProductStatus.OUT_OF_STOCK);
+    public ProductResponse restoreStock(Long productId, int quantity) {
+        // Also flips OUT_OF_STOCK back to ACTIVE
+        if (!stockBucketService.applyStockDelta(productId, quantity)) {
+            throw new ProductNotFoundException(productId);
         }
 
-        Product updatedProduct = productRepository.save(product);
-        log.info("Stock reduced successfully. New quantity: {}", updatedProduct.getStockQuantity());
+        Product updatedProduct = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+        log.info("Stock of product {} restored by {} to {}", productId, quantity, updatedProduct.getTotalStock());
+        publishProductEvent(updatedProduct, "STOCK_CHANGED");
 
         return ProductResponse.fromEntity(updatedProduct);
     }
 
-    public ProductResponse restoreStock(Long productId, int quantity) {
-        log.info("Restoring stock for product {}, quantity: {}", productId, quantity);
+    // Reduces stock for every line of an order or for none: one statement for all lines (split products
+    // from their buckets), rolled back when a product is missing or short
+    public List<ProductResponse> reduceStock(ProductBatchRequest request) {
+        Map<Long, Integer> requested = new TreeMap<>();
+        for (ProductBatchRequest.Item item : request.getItems()) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        log.debug("Reducing stock for {} products", requested.size());
+
+        Map<Long, Integer> rowLines = new TreeMap<>(requested);
+        rowLines.keySet().removeIf(stockBucketService::isSplit);
+        Set<Long> decremented = new HashSet<>();
+        if (!rowLines.isEmpty()) {
+            decremented.addAll(productRepository.decrementStock(
+                    rowLines.keySet().toArray(Long[]::new), rowLines.values().toArray(Integer[]::new)));
+        }
+        // Split products, also those split by another instance since the last rebalance run
+        requested.forEach((productId, quantity) -> {
+            if (!decremented.contains(productId) && stockBucketService.takeFromBuckets(productId, quantity)) {
+                decremented.add(productId);
+            }
+        });
+
+        Map<Long, Product> products = productRepository.findAllById(requested.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (decremented.size() < requested.size()) {
+            // Throwing rolls back the lines that were decremented
+            Long shortProductId = requested.keySet().stream()
+                    .filter(productId -> !decremented.contains(productId))
+                    .findFirst()
+                    .orElseThrow();
+            Product product = products.get(shortProductId);
+            if (product == null) {
+                throw new ProductNotFoundException(shortProductId);
+            }
+            throw new InsufficientStockException(shortProductId, requested.get(shortProductId), product.getTotalStock());
+        }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException(productId));
+        List<ProductResponse> responses = new ArrayList<>();
+        for (Long productId : requested.keySet()) {
+            Product product = products.get(productId);
+            publishProductEvent(product, "STOCK_CHANGED");
+            responses.add(ProductResponse.fromEntity(product));
+        }
+        return responses;
+    }
 
-        product.setStockQuantity(product.getStockQuantity() + quantity);
+    // Stock changes of a batch of order events, in one transaction. Events processed before
+    // (redelivered) are skipped. The event ids are recorded once their changes are applied or rejected,
+    // the orders' holds end in the same commit.
+    // Returns the product of each change that was not applied (unknown product or not enough stock)
+    public List<Long> applyOrderStockChanges(List<OrderStockChange> changes) {
+        Set<UUID> processed = processedEventService.findProcessed(changes.stream()
+                .map(OrderStockChange::eventId)
+                .filter(Objects::nonNull)
+                .toList());
+
+        List<OrderStockChange> newChanges = new ArrayList<>();
+        Set<UUID> newEventIds = new HashSet<>();
+        List<String> reservationIds = new ArrayList<>();
+        for (OrderStockChange change : changes) {
+            // Also for duplicates: ending a reservation twice does nothing
+            if (change.reservationId() != null) {
+                reservationIds.add(change.reservationId());
+            }
+            // add: an event twice in the same batch is applied once
+            if (change.eventId() != null
+                    && (processed.contains(change.eventId()) || !newEventIds.add(change.eventId()))) {
+                continue;
+            }
+            newChanges.add(change);
+        }
+        if (newChanges.size() < changes.size()) {
+            log.debug("Skipped {} order events processed before", changes.size() - newChanges.size());
+        }
+        List<Long> rejected = applyStockChanges(newChanges);
+        processedEventService.record(newEventIds);
+        stockReservationService.end(reservationIds);
+        return rejected;
+    }
 
-        // Update status if was out of stock
-        if (product.getStatus() == Product.ProductStatus.OUT_OF_STOCK && product.getStockQuantity() > 0) {
-            product.setStatus(Product.ProductStatus.ACTIVE);
+    // One conditional UPDATE per product (a split product's bucket) for the net change of all events,
+    // in id order: concurrent batches lock rows in the same order. A rejected net change left the
+    // product as it was, its events' changes are then applied one at a time in the order they were
+    // consumed, so a decrement that doesn't fit doesn't take the restores next to it down with it
+    private List<Long> applyStockChanges(List<OrderStockChange> changes) {
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (OrderStockChange change : changes) {
+            change.deltas().forEach((productId, delta) -> deltas.merge(productId, delta, Integer::sum));
         }
 
-        Product updatedProduct = productRepository.save(product);
-        log.info("Stock restored successfully. New quantity: {}", updatedProduct.getStockQuantity());
+        List<Long> applied = new ArrayList<>();
+        List<Long> rejected = new ArrayList<>();
+        deltas.forEach((productId, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            if (stockBucketService.applyStockDelta(productId, delta)) {
+                applied.add(productId);
+                return;
+            }
+            boolean anyApplied = false;
+            for (OrderStockChange change : changes) {
+                Integer eventDelta = change.deltas().get(productId);
+                if (eventDelta == null || eventDelta == 0) {
+                    continue;
+                }
+                if (stockBucketService.applyStockDelta(productId, eventDelta)) {
+                    anyApplied = true;
+                } else {
+                    rejected.add(productId);
+                }
+            }
+            if (anyApplied) {
+                applied.add(productId);
+            }
+        });
+
+        // One read for the new stock levels
+        productRepository.findAllById(applied).forEach(product -> publishProductEvent(product, "STOCK_CHANGED"));
+        return rejected;
+    }
 
-        return ProductResponse.fromEntity(updatedProduct);
+    // Opt-in split stock for hot products, 0 buckets turns it off again
+    public ProductResponse splitStock(Long productId, int buckets) {
+        return stockBucketService.split(productId, buckets);
     }
 
     // Method to check if product is in stock for the order with this quantity
@@ -169,6 +323,45 @@ public class ProductService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException(productId));
 
-        return product.getStockQuantity() >= quantity;
+        return product.getTotalStock() >= quantity;
+    }
+
+    private void publishProductEvent(Product product, String eventType) {
+        kafkaProducerService.sendProductEventAfterCommit(ProductEvent.builder()
+                .productId(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .stockQuantity(product.getTotalStock())
+                .status(product.getStatus().name())
+                .eventType(eventType)
+                .eventTimestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // Method for Order Service to validate and price a whole cart in one call
+    @Transactional(readOnly = true)
+    public List<ProductAvailabilityResponse> getProductsAvailability(ProductBatchRequest request) {
+        // Same product may appear on several cart lines, check stock against the total
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (ProductBatchRequest.Item item : request.getItems()) {
+            requested.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        log.debug("Fetching availability for {} products", requested.size());
+
+        Map<Long, Product> products = productRepository.findAllById(requested.keySet())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Long> missing = requested.keySet().stream()
+                .filter(id -> !products.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new ProductNotFoundException("Products not found with ids: " + missing);
+        }
+
+        return requested.entrySet().stream()
+                .map(entry -> ProductAvailabilityResponse.fromEntity(
+                        products.get(entry.getKey()), entry.getValue()))
+                .toList();
     }
 }
@@ -0,0 +1,196 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.product_service.dto.ProductResponse;
+import com.ecommerce.product_service.entity.Product;
+import com.ecommerce.product_service.entity.ProductStockBucket;
+import com.ecommerce.product_service.exception.ProductNotFoundException;
+import com.ecommerce.product_service.repository.ProductRepository;
+import com.ecommerce.product_service.repository.ProductStockBucketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Split stock for hot products (opt-in, PUT /api/products/{id}/stock-buckets). A split product's units
+// are spread over Product.stockBuckets rows of product_stock_buckets and an order takes its units from
+// one random bucket that isn't locked, so concurrent orders for the product don't queue on one row.
+// products.stock_quantity stays 0, reads add the buckets up (Product.getTotalStock()).
+// A background rebalance evens the buckets out again and keeps the status in line with the total.
+// Lock order is always buckets, then the products row
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockBucketService {
+
+    private final ProductRepository productRepository;
+    private final ProductStockBucketRepository productStockBucketRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Split products as of the last rebalance run or change on this instance. Only picks which
+    // path is tried first, a stale entry costs a statement, not a wrong result
+    private final Set<Long> splitProducts = ConcurrentHashMap.newKeySet();
+
+    // Stock change of an order (negative takes units), split product or not. false when the product
+    // doesn't exist or doesn't have enough stock
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean applyStockDelta(Long productId, int delta) {
+        boolean split = splitProducts.contains(productId);
+        if (!split && productRepository.applyStockDelta(productId, delta) == 1) {
+            return true;
+        }
+
+        // Split, or split by another instance since the last rebalance run
+        boolean applied = delta < 0 ? takeFromBuckets(productId, -delta) : returnToBuckets(productId, delta);
+        if (!applied && split) {
+            // Units added outside the buckets that the rebalance hasn't moved yet
+            return productRepository.applyStockDelta(productId, delta) == 1;
+        }
+        return applied;
+    }
+
+    // false when the buckets together don't have enough (or the product isn't split)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean takeFromBuckets(Long productId, int quantity) {
+        // More concurrent orders than buckets: waiting for one bucket keeps the others free,
+        // locking all of them would queue every order behind this one
+        if (productStockBucketRepository.takeFromOneBucket(productId, quantity) == 0
+                && productStockBucketRepository.takeFromOneBucketWaiting(productId, quantity) == 0) {
+            productStockBucketRepository.lockAll(productId);
+            if (productStockBucketRepository.takeFromAllBuckets(productId, quantity) == 0) {
+                return false;
+            }
+        }
+        productRepository.refreshStockStatus(productId);
+        return true;
+    }
+
+    private boolean returnToBuckets(Long productId, int quantity) {
+        if (productStockBucketRepository.addToRandomBucket(productId, quantity) == 0) {
+            return false;
+        }
+        productRepository.refreshStockStatus(productId);
+        return true;
+    }
+
+    public boolean isSplit(Long productId) {
+        return splitProducts.contains(productId);
+    }
+
+    // Splits the product's stock over `buckets` rows, 0 moves it back into products.stock_quantity
+    @Transactional
+    public ProductResponse split(Long productId, int buckets) {
+        List<ProductStockBucket> rows = productStockBucketRepository.findAllForUpdate(productId);
+        productRepository.lockById(productId).orElseThrow(() -> new ProductNotFoundException(productId));
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+
+        int total = product.getStockQuantity() + rows.stream().mapToInt(ProductStockBucket::getQuantity).sum();
+        product.setStockBuckets(buckets);
+        distribute(product, rows, total);
+        log.info("Stock of product {} split over {} buckets", productId, buckets);
+        return ProductResponse.fromEntity(product);
+    }
+
+    // Sets a split product's total stock (product update), spread evenly over its buckets
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replaceStock(Product product, int total) {
+        List<ProductStockBucket> rows = productStockBucketRepository.findAllForUpdate(product.getId());
+        productRepository.lockById(product.getId());
+        distribute(product, rows, total);
+    }
+
+    private void distribute(Product product, List<ProductStockBucket> rows, int total) {
+        int buckets = product.getStockBuckets();
+        Map<Integer, ProductStockBucket> existing = rows.stream()
+                .collect(Collectors.toMap(ProductStockBucket::getBucket, Function.identity()));
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int quantity = total / buckets + (bucket < total % buckets ? 1 : 0);
+            ProductStockBucket row = existing.remove(bucket);
+            if (row == null) {
+                productStockBucketRepository.save(new ProductStockBucket(product.getId(), bucket, quantity));
+            } else {
+                row.setQuantity(quantity);
+            }
+        }
+        productStockBucketRepository.deleteAll(existing.values());
+
+        product.setStockQuantity(buckets == 0 ? total : 0);
+        product.setBucketedQuantity(buckets == 0 ? 0 : total);
+        if (total == 0) {
+            product.setStatus(Product.ProductStatus.OUT_OF_STOCK);
+        } else if (product.getStatus() == Product.ProductStatus.OUT_OF_STOCK) {
+            product.setStatus(Product.ProductStatus.ACTIVE);
+        }
+
+        if (buckets > 0) {
+            splitProducts.add(product.getId());
+        } else {
+            splitProducts.remove(product.getId());
+        }
+    }
+
+    // One statement when nothing is off. A product whose buckets drifted apart is evenly split again
+    // in its own transaction, the others only get their status corrected if needed
+    @Scheduled(fixedDelayString = "${product.stock-buckets.rebalance-interval:1000}")
+    public void rebalance() {
+        Set<Long> split = new HashSet<>();
+        for (ProductStockBucketRepository.BucketStats stats : productStockBucketRepository.findBucketStats()) {
+            if (stats.getStockBuckets() > 0) {
+                split.add(stats.getProductId());
+            }
+            try {
+                if (needsRebalance(stats)) {
+                    transactionTemplate.executeWithoutResult(status -> rebalance(stats.getProductId()));
+                } else if (statusOutdated(stats)) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            productRepository.refreshStockStatus(stats.getProductId()));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not rebalance stock of product {}: {}", stats.getProductId(), e.getMessage());
+            }
+        }
+        splitProducts.retainAll(split);
+        splitProducts.addAll(split);
+    }
+
+    private void rebalance(Long productId) {
+        List<ProductStockBucket> rows = productStockBucketRepository.findAllForUpdate(productId);
+        if (productRepository.lockById(productId).isEmpty()) {
+            return;
+        }
+        Product product = productRepository.findById(productId).orElseThrow();
+        int total = product.getStockQuantity() + rows.stream().mapToInt(ProductStockBucket::getQuantity).sum();
+        distribute(product, rows, total);
+        log.debug("Rebalanced stock of product {}: {} units over {} buckets", productId, total, product.getStockBuckets());
+    }
+
+    // Units outside the buckets, bucket rows not matching stock_buckets, or a bucket more than half
+    // an even share below the fullest one
+    private static boolean needsRebalance(ProductStockBucketRepository.BucketStats stats) {
+        if (stats.getStockBuckets() == 0) {
+            return stats.getBucketCount() > 0;
+        }
+        if (stats.getStockQuantity() > 0 || !stats.getBucketCount().equals(stats.getStockBuckets())) {
+            return true;
+        }
+        int share = stats.getBucketedQuantity() / stats.getStockBuckets();
+        return stats.getMaxQuantity() - stats.getMinQuantity() > Math.max(1, share / 2);
+    }
+
+    // Concurrent orders taking the last units from different buckets each still see the other's units
+    private static boolean statusOutdated(ProductStockBucketRepository.BucketStats stats) {
+        boolean outOfStock = Product.ProductStatus.OUT_OF_STOCK.name().equals(stats.getStatus());
+        return (stats.getStockQuantity() + stats.getBucketedQuantity() == 0) != outOfStock;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.product_service.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Parallel mode of the order-events consumer (product.order-events.parallelism > 1).
+// Events that share a product stay together (connected components over their products), so a product
+// is still changed by one transaction, in event order. Components are spread over `parallelism` stripes
+// by product id and the stripes are applied at the same time, each in its own transaction.
+// An event's dedup row and its stock changes always land in the same transaction.
+// Events without an event id (sent before the header existed) can't be dropped when redelivered:
+// a batch holding one is applied in a single transaction, as with parallelism 1
+@Service
+@Slf4j
+public class StockChangeStriper {
+
+    private final ProductService productService;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public StockChangeStriper(ProductService productService,
+                              @Value("${product.order-events.parallelism:1}") int parallelism) {
+        this.productService = productService;
+        this.parallelism = parallelism;
+        // Each stripe holds a database connection while it runs, keep below the pool size
+        this.executor = parallelism > 1
+                ? Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("stock-stripe-"))
+                : null;
+    }
+
+    // Returns once every stripe is done (committed or rolled back). When stripes failed, the events before
+    // the first event of a failed stripe are all committed: StripeFailedException carries that position,
+    // the consumer commits the offsets up to it and the rest of the batch is redelivered (the committed
+    // stripes' events in it are then dropped as duplicates)
+    public List<Long> apply(List<ProductService.OrderStockChange> changes) {
+        if (executor == null || changes.size() < 2 || changes.stream().anyMatch(change -> change.eventId() == null)) {
+            return productService.applyOrderStockChanges(changes);
+        }
+
+        List<List<Integer>> stripes = stripe(changes).stream().filter(stripe -> !stripe.isEmpty()).toList();
+        List<CompletableFuture<List<Long>>> results = stripes.stream()
+                .map(stripe -> stripe.stream().map(changes::get).toList())
+                .map(stripe -> CompletableFuture.supplyAsync(() -> productService.applyOrderStockChanges(stripe), executor))
+                .toList();
+        // Wait for all of them, not just up to the first failure
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+
+        List<Long> rejected = new ArrayList<>();
+        StripeFailedException failure = null;
+        for (int i = 0; i < stripes.size(); i++) {
+            try {
+                rejected.addAll(results.get(i).join());
+            } catch (CompletionException e) {
+                // A stripe's positions are in batch order, its first one is where it starts
+                StripeFailedException failed = new StripeFailedException(stripes.get(i).get(0), e.getCause());
+                if (failure == null || failed.firstFailedChange() < failure.firstFailedChange()) {
+                    if (failure != null) {
+                        failed.addSuppressed(failure.getCause());
+                    }
+                    failure = failed;
+                } else {
+                    failure.addSuppressed(failed.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        log.debug("Applied {} order events in {} stripes", changes.size(), stripes.size());
+        return rejected;
+    }
+
+    // Positions in the batch of each stripe's events
+    private List<List<Integer>> stripe(List<ProductService.OrderStockChange> changes) {
+        // Union-find over the events, joined when they touch the same product
+        int[] parent = new int[changes.size()];
+        Map<Long, Integer> firstEventOfProduct = new HashMap<>();
+        for (int i = 0; i < changes.size(); i++) {
+            parent[i] = i;
+            for (Long productId : changes.get(i).deltas().keySet()) {
+                Integer other = firstEventOfProduct.putIfAbsent(productId, i);
+                if (other != null) {
+                    parent[root(parent, i)] = root(parent, other);
+                }
+            }
+        }
+
+        // A component goes to the stripe of its smallest product id
+        Map<Integer, Long> smallestProductOfRoot = new HashMap<>();
+        firstEventOfProduct.forEach((productId, event) ->
+                smallestProductOfRoot.merge(root(parent, event), productId, Math::min));
+
+        List<List<Integer>> stripes = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            stripes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < changes.size(); i++) {
+            long productId = smallestProductOfRoot.get(root(parent, i));
+            stripes.get(Math.floorMod(Long.hashCode(productId), parallelism)).add(i);
+        }
+        return stripes;
+    }
+
+    private static int root(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // Some stripes rolled back: every change before firstFailedChange (position in the batch) is committed
+    public static class StripeFailedException extends RuntimeException {
+
+        private final int firstFailedChange;
+
+        public StripeFailedException(int firstFailedChange, Throwable cause) {
+            super("Stock changes failed from position " + firstFailedChange + " of the batch", cause);
+            this.firstFailedChange = firstFailedChange;
+        }
+
+        public int firstFailedChange() {
+            return firstFailedChange;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.product_service.dto.StockReservationResponse;
+import com.ecommerce.product_service.exception.InsufficientStockException;
+import com.ecommerce.product_service.exception.ProductNotFoundException;
+import com.ecommerce.product_service.repository.StockReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Holds stock for an order from its creation until product-service applies its ORDER_CREATED event
+// (which takes the units from the product's stock), so orders accepted in between can't oversell.
+// stock_reservations is the only copy of the holds: any instance may reserve, release or apply the
+// order event, a product's available stock is its total stock minus its unexpired rows.
+// Reservations of one product wait for each other on an advisory lock, stock updates don't
+@Service
+@Slf4j
+public class StockReservationService {
+
+    private static final String METRIC = "product.stock.reservations";
+
+    private final StockReservationRepository stockReservationRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+
+    public StockReservationService(StockReservationRepository stockReservationRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${product.reservations.ttl:10m}") Duration ttl) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+    }
+
+    // Holds every line or none. Calling again with the same id (a retried request) returns the
+    // existing reservation
+    @Transactional
+    public StockReservationResponse reserve(String reservationId, Map<Long, Integer> quantities) {
+        // Id order: reservations sharing products take the locks in the same order
+        Map<Long, Integer> lines = new TreeMap<>(quantities);
+        lines.keySet().forEach(stockReservationRepository::lockProduct);
+
+        // Checked under the locks, a concurrent retry of this reservation has committed or not started
+        Optional<Instant> existing = stockReservationRepository.findExpiresAt(reservationId);
+        if (existing.isPresent()) {
+            return new StockReservationResponse(reservationId, existing.get());
+        }
+
+        lines.forEach((productId, quantity) -> {
+            int available = stockReservationRepository.findAvailableStock(productId)
+                    .orElseThrow(() -> new ProductNotFoundException(productId));
+            if (available < quantity) {
+                meterRegistry.counter(METRIC, "outcome", "rejected").increment();
+                throw new InsufficientStockException(productId, quantity, Math.max(available, 0));
+            }
+        });
+
+        stockReservationRepository.insertAll(reservationId, lines.keySet().toArray(Long[]::new),
+                lines.values().toArray(Integer[]::new), ttl.toMillis() / 1000.0);
+        Instant expiresAt = stockReservationRepository.findExpiresAt(reservationId).orElseThrow();
+        meterRegistry.counter(METRIC, "outcome", "reserved").increment();
+        log.debug("Reserved stock of {} products for {}", lines.size(), reservationId);
+        return new StockReservationResponse(reservationId, expiresAt);
+    }
+
+    // The order was not placed after all
+    @Transactional
+    public void release(String reservationId) {
+        long released = stockReservationRepository.deleteAllByReservationId(new String[]{reservationId});
+        meterRegistry.counter(METRIC, "outcome", "released").increment(released);
+    }
+
+    // Order events applied by the current transaction: their units are now taken from (or given back
+    // to) the products' stock, the holds end in the same commit. A cancelled order's hold normally
+    // ended with its ORDER_CREATED already
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void end(Collection<String> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return;
+        }
+        long ended = stockReservationRepository.deleteAllByReservationId(reservationIds.toArray(String[]::new));
+        meterRegistry.counter(METRIC, "outcome", "committed").increment(ended);
+    }
+
+    // Expired holds already stopped counting, this only removes their rows. Harmless on every instance
+    @Transactional
+    @Scheduled(fixedDelayString = "${product.reservations.cleanup-interval:60000}")
+    public void deleteExpired() {
+        long expired = stockReservationRepository.deleteExpired();
+        if (expired > 0) {
+            meterRegistry.counter(METRIC, "outcome", "expired").increment(expired);
+            log.debug("Deleted {} expired stock reservations", expired);
+        }
+    }
+}
@@ -18,7 +18,7 @@ public class UserPreferenceService {
     private final UserPreferenceRepository userPreferenceRepository;
 
     public UserPreference createUserPreference(Long userId, String userName, String email) {
-        log.info("Creating user preference for user ID: {}", userId);
+        log.debug("Creating user preference for user ID: {}", userId);
 
         // Check if already exists
         if (userPreferenceRepository.existsByUserId(userId)) {
@@ -36,13 +36,13 @@ public class UserPreferenceService {
                 .build();
 
         UserPreference saved = userPreferenceRepository.save(preference);
-        log.info("User preference created successfully for user ID: {}", userId);
+        log.debug("User preference created successfully for user ID: {}", userId);
 
         return saved;
     }
 
     public void deleteUserPreference(Long userId) {
-        log.info("Deleting user preference for user ID: {}", userId);
+        log.debug("Deleting user preference for user ID: {}", userId);
 
         if (!userPreferenceRepository.existsByUserId(userId)) {
             log.warn("User preference not found for user ID: {}", userId);
@@ -50,6 +50,6 @@ public class UserPreferenceService {
         }
 
         userPreferenceRepository.deleteByUserId(userId);
-        log.info("User preference deleted successfully for user ID: {}", userId);
+        log.debug("User preference deleted successfully for user ID: {}", userId);
     }
 }
@@ -0,0 +1,44 @@
+-- Product service schema. IF NOT EXISTS everywhere: databases created earlier by Hibernate auto-DDL
+-- are baselined and get only what they are missing
+
+CREATE TABLE IF NOT EXISTS products (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(255)   NOT NULL,
+    description    VARCHAR(1000),
+    price          NUMERIC(38, 2) NOT NULL,
+    stock_quantity INTEGER        NOT NULL,
+    category       VARCHAR(255),
+    sku_code       VARCHAR(255) UNIQUE,
+    status         VARCHAR(255)   NOT NULL,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS user_preferences (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id               BIGINT       NOT NULL UNIQUE,
+    user_name             VARCHAR(255) NOT NULL,
+    email                 VARCHAR(255) NOT NULL,
+    notifications_enabled BOOLEAN      NOT NULL,
+    created_at            TIMESTAMP(6),
+    updated_at            TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS user_favorite_categories (
+    preference_id BIGINT NOT NULL REFERENCES user_preferences (id),
+    category      VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS user_wishlist (
+    preference_id BIGINT NOT NULL REFERENCES user_preferences (id),
+    product_id    BIGINT
+);
+
+-- Keyset pages of a category
+CREATE INDEX IF NOT EXISTS idx_products_category_id ON products (category, id);
+-- Listing by status
+CREATE INDEX IF NOT EXISTS idx_products_status ON products (status);
+-- Element collections are loaded by their owner
+CREATE INDEX IF NOT EXISTS idx_user_favorite_categories_preference_id ON user_favorite_categories (preference_id);
+CREATE INDEX IF NOT EXISTS idx_user_wishlist_preference_id ON user_wishlist (preference_id);
+-- user_preferences.user_id is covered by its unique constraint
@@ -0,0 +1,8 @@
+-- Ids of applied Kafka events (event-id header), redeliveries are dropped by primary key
+CREATE TABLE IF NOT EXISTS processed_events (
+    event_id     UUID PRIMARY KEY,
+    processed_at TIMESTAMP(6) NOT NULL
+);
+
+-- Pruning by age
+CREATE INDEX IF NOT EXISTS idx_processed_events_processed_at ON processed_events (processed_at);
@@ -0,0 +1,12 @@
+-- Stock held for orders between reservation and their ORDER_CREATED event, one row per product.
+-- The only copy of the holds, shared by all instances (StockReservationService, see V5)
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    reservation_id VARCHAR(64)  NOT NULL,
+    product_id     BIGINT       NOT NULL,
+    quantity       INTEGER      NOT NULL,
+    expires_at     TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (reservation_id, product_id)
+);
+
+-- Cleanup by expiry
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_expires_at ON stock_reservations (expires_at);
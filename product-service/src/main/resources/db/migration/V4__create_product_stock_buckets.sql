@@ -0,0 +1,13 @@
+-- Split stock for hot products (opt-in): with stock_buckets > 0 the product's units are spread over
+-- that many product_stock_buckets rows, concurrent orders lock different rows instead of one products row
+ALTER TABLE products ADD COLUMN IF NOT EXISTS stock_buckets INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS product_stock_buckets (
+    product_id BIGINT  NOT NULL REFERENCES products (id) ON DELETE CASCADE,
+    bucket     INTEGER NOT NULL,
+    quantity   INTEGER NOT NULL CHECK (quantity >= 0),
+    PRIMARY KEY (product_id, bucket)
+);
+
+-- The rebalancer's list of split products
+CREATE INDEX IF NOT EXISTS idx_products_stock_buckets ON products (id) WHERE stock_buckets > 0;
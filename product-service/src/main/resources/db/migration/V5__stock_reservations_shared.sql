@@ -0,0 +1,8 @@
+-- stock_reservations becomes the only copy of the holds (StockReservationService): every instance
+-- subtracts a product's unexpired rows from its stock. Expiry times come from the database clock and
+-- are compared as absolute times, whatever the JVM or session time zone. Existing rows were written
+-- in the writing JVM's local time, the session time zone of this migration
+ALTER TABLE stock_reservations ALTER COLUMN expires_at TYPE TIMESTAMP(6) WITH TIME ZONE;
+
+-- Units held per product, on every reservation
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_product_id ON stock_reservations (product_id, expires_at);
@@ -0,0 +1,115 @@
+package com.ecommerce.product_service;
+
+import com.ecommerce.product_service.entity.Product;
+import com.ecommerce.product_service.repository.ProductRepository;
+import com.ecommerce.product_service.service.StockBucketService;
+import com.ecommerce.product_service.service.StockReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// PostgreSQL and the stock services for the JMH benchmarks: JPA, Flyway and the services under test,
+// no Kafka, Eureka or web server. The database is a Testcontainers PostgreSQL (Docker needed), or an
+// existing one with -Dbenchmark.datasource.url=jdbc:postgresql://... (benchmark.datasource.username and
+// .password, default postgres and empty). Benchmarks add products, use a throwaway database
+public final class StockBenchmarkDatabase implements AutoCloseable {
+
+	// Not a @SpringBootConfiguration, the test slices would find two. Component scans skip it
+	@TestConfiguration(proxyBeanMethods = false)
+	@AutoConfigurationPackage
+	@ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+			JpaRepositoriesAutoConfiguration.class, FlywayAutoConfiguration.class, TransactionAutoConfiguration.class})
+	@Import({StockReservationService.class, StockBucketService.class, SimpleMeterRegistry.class})
+	static class StockServices {
+	}
+
+	private final PostgreSQLContainer<?> container;
+	private final ConfigurableApplicationContext context;
+
+	private StockBenchmarkDatabase(PostgreSQLContainer<?> container, ConfigurableApplicationContext context) {
+		this.container = container;
+		this.context = context;
+	}
+
+	// properties: extra --name=value arguments, e.g. "--product.reservations.ttl=1s"
+	public static StockBenchmarkDatabase start(String... properties) {
+		PostgreSQLContainer<?> container = null;
+		String url = System.getProperty("benchmark.datasource.url");
+		String username = System.getProperty("benchmark.datasource.username", "postgres");
+		String password = System.getProperty("benchmark.datasource.password", "");
+		if (url == null) {
+			container = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+			container.start();
+			url = container.getJdbcUrl();
+			username = container.getUsername();
+			password = container.getPassword();
+		}
+
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.cloud.config.enabled=false",
+				"--spring.datasource.url=" + url,
+				"--spring.datasource.username=" + username,
+				"--spring.datasource.password=" + password,
+				// A connection for every benchmark thread
+				"--spring.datasource.hikari.maximum-pool-size=64",
+				"--logging.level.root=WARN"));
+		args.addAll(List.of(properties));
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(StockServices.class)
+				.web(WebApplicationType.NONE)
+				.run(args.toArray(String[]::new));
+		return new StockBenchmarkDatabase(container, context);
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	public TransactionTemplate transactionTemplate() {
+		return context.getBean(TransactionTemplate.class);
+	}
+
+	// buckets > 0: the stock is split (StockBucketService.split)
+	public Long createProduct(int stock, int buckets) {
+		Long productId = getBean(ProductRepository.class).save(Product.builder()
+				.name("Benchmark product")
+				.price(new BigDecimal("10.00"))
+				.stockQuantity(stock)
+				.skuCode("BENCH-" + UUID.randomUUID())
+				.status(Product.ProductStatus.ACTIVE)
+				.build()).getId();
+		if (buckets > 0) {
+			getBean(StockBucketService.class).split(productId, buckets);
+		}
+		return productId;
+	}
+
+	public int totalStock(Long productId) {
+		return getBean(ProductRepository.class).findById(productId).orElseThrow().getTotalStock();
+	}
+
+	@Override
+	public void close() {
+		context.close();
+		if (container != null) {
+			container.stop();
+		}
+	}
+}
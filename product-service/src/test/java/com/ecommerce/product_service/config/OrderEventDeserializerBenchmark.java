@@ -0,0 +1,129 @@
+package com.ecommerce.product_service.config;
+
+import com.ecommerce.common.event.BinaryEventWriter;
+import com.ecommerce.common.event.EventContentTypes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecommerce.common.event.OrderEventFields.*;
+
+// Reading an order event record the way order-service sends it, as JSON (Jackson's output of its
+// OrderEvent) or binary (its OrderEventCodec). Encoding: order-service's EventEncoderBenchmark.
+// map: the JSON read into a Map, as before the typed records. ORDER_SHIPPED is a type product-service
+// doesn't handle, only its header is read. Allocation per record: -prof gc in jmh.args
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OrderEventDeserializerBenchmark {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+	@Param({"json", "binary", "map"})
+	private String reader;
+
+	@Param({"2", "30"})
+	private int items;
+
+	@Param({"ORDER_CREATED", "ORDER_SHIPPED"})
+	private String eventType;
+
+	private Deserializer<?> deserializer;
+	private Headers headers;
+	private byte[] payload;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		headers = new RecordHeaders();
+		headers.add(EventContentTypes.EVENT_TYPE_HEADER, eventType.getBytes(StandardCharsets.UTF_8));
+		if (reader.equals("binary")) {
+			headers.add(EventContentTypes.HEADER, EventContentTypes.ORDER_EVENT_V1.getBytes(StandardCharsets.UTF_8));
+			payload = binary(items, eventType);
+		} else {
+			headers.add(EventContentTypes.HEADER, EventContentTypes.JSON.getBytes(StandardCharsets.UTF_8));
+			payload = json(items, eventType);
+		}
+		if (reader.equals("map")) {
+			ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+			deserializer = (topic, data) -> {
+				try {
+					return objectMapper.readValue(data, Map.class);
+				} catch (IOException e) {
+					throw new SerializationException(e);
+				}
+			};
+		} else {
+			deserializer = new OrderEventDeserializer();
+		}
+	}
+
+	@Benchmark
+	public Object deserialize() {
+		return deserializer.deserialize("order-events", headers, payload);
+	}
+
+	private static byte[] json(int items, String eventType) {
+		StringBuilder json = new StringBuilder("{\"orderId\":123456,\"orderNumber\":\"ORD-0000ABCDEFGHI\",\"userId\":42," +
+				"\"totalAmount\":599.70,\"status\":\"CONFIRMED\",\"shippingAddress\":\"1 Main Street, Springfield\"," +
+				"\"createdAt\":\"2025-01-02T03:04:05\",\"items\":[");
+		for (int i = 0; i < items; i++) {
+			int quantity = 1 + i % 3;
+			json.append(i == 0 ? "" : ",")
+					.append("{\"productId\":").append(100 + i)
+					.append(",\"productName\":\"Product ").append(i)
+					.append("\",\"quantity\":").append(quantity)
+					.append(",\"unitPrice\":19.99,\"subtotal\":")
+					.append(new BigDecimal("19.99").multiply(BigDecimal.valueOf(quantity)))
+					.append('}');
+		}
+		return json.append("],\"eventType\":\"").append(eventType).append("\",\"message\":\"New order created " +
+				"with number: ORD-0000ABCDEFGHI\",\"eventTimestamp\":\"2025-01-02T03:04:05\"}").toString()
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] binary(int items, String eventType) {
+		BinaryEventWriter writer = new BinaryEventWriter(128)
+				.writeLong(ORDER_ID, 123456L)
+				.writeString(ORDER_NUMBER, "ORD-0000ABCDEFGHI")
+				.writeLong(USER_ID, 42L)
+				.writeDecimal(TOTAL_AMOUNT, new BigDecimal("599.70"))
+				.writeString(STATUS, "CONFIRMED")
+				.writeString(SHIPPING_ADDRESS, "1 Main Street, Springfield")
+				.writeTimestamp(CREATED_AT, NOW);
+		for (int i = 0; i < items; i++) {
+			writer.writeMessage(ITEMS, new BinaryEventWriter(16)
+					.writeLong(ITEM_PRODUCT_ID, 100L + i)
+					.writeInt(ITEM_QUANTITY, 1 + i % 3)
+					.writeDecimal(ITEM_UNIT_PRICE, new BigDecimal("19.99")));
+		}
+		return writer
+				.writeString(EVENT_TYPE, eventType)
+				.writeTimestamp(EVENT_TIMESTAMP, NOW)
+				.toByteArray();
+	}
+}
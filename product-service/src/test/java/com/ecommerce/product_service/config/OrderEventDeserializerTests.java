@@ -0,0 +1,87 @@
+package com.ecommerce.product_service.config;
+
+import com.ecommerce.common.event.BinaryEventWriter;
+import com.ecommerce.common.event.EventContentTypes;
+import com.ecommerce.product_service.event.OrderEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventDeserializerTests {
+
+	private static final OrderEvent ORDER_CREATED =
+			new OrderEvent(42L, "ORD-1", "ORDER_CREATED", List.of(new OrderEvent.Item(100L, 2)));
+
+	private static final byte[] JSON = """
+			{"orderId":42,"orderNumber":"ORD-1","userId":7,"status":"PENDING",
+			 "items":[{"productId":100,"productName":"Mug","quantity":2,"unitPrice":19.99}],
+			 "eventType":"ORDER_CREATED","eventTimestamp":"2025-01-02T03:04:06","extra":{"nested":[1,2]}}
+			""".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] BINARY = new BinaryEventWriter(32)
+			.writeLong(1, 42L)
+			.writeString(2, "ORD-1")
+			.writeMessage(8, new BinaryEventWriter(8).writeLong(1, 100L).writeInt(2, 2))
+			.writeString(9, "ORDER_CREATED")
+			.toByteArray();
+
+	private final OrderEventDeserializer deserializer = new OrderEventDeserializer();
+
+	@Test
+	void readsJsonWithoutAContentTypeHeader() {
+		// Records written before producers set the header
+		assertThat(deserializer.deserialize("order-events", new RecordHeaders(), JSON)).isEqualTo(ORDER_CREATED);
+		assertThat(deserializer.deserialize("order-events", JSON)).isEqualTo(ORDER_CREATED);
+	}
+
+	@Test
+	void readsJsonWithTheJsonContentType() {
+		assertThat(deserializer.deserialize("order-events", headers(EventContentTypes.JSON), JSON))
+				.isEqualTo(ORDER_CREATED);
+	}
+
+	@Test
+	void readsBinaryWithItsContentType() {
+		assertThat(deserializer.deserialize("order-events", headers(EventContentTypes.ORDER_EVENT_V1), BINARY))
+				.isEqualTo(ORDER_CREATED);
+	}
+
+	@Test
+	void doesNotReadEventTypesItDoesNotHandle() {
+		Headers headers = headers(EventContentTypes.ORDER_EVENT_V1);
+		headers.add(EventContentTypes.EVENT_TYPE_HEADER, "ORDER_SHIPPED".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(deserializer.deserialize("order-events", headers, new byte[]{0x0b}))
+				.isEqualTo(new OrderEvent(null, null, "ORDER_SHIPPED", List.of()));
+	}
+
+	@Test
+	void rejectsAnUnknownContentType() {
+		assertThatThrownBy(() -> deserializer.deserialize("order-events", headers("application/vnd.ecommerce.order-event.v2"), BINARY))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("Unsupported content type");
+	}
+
+	@Test
+	void rejectsATruncatedBinaryValue() {
+		byte[] truncated = Arrays.copyOf(BINARY, BINARY.length - 2);
+
+		assertThatThrownBy(() -> deserializer.deserialize("order-events", headers(EventContentTypes.ORDER_EVENT_V1), truncated))
+				.isInstanceOf(SerializationException.class)
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Headers headers(String contentType) {
+		Headers headers = new RecordHeaders();
+		headers.add(EventContentTypes.HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+		return headers;
+	}
+}
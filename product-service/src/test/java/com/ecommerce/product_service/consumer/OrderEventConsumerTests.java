@@ -0,0 +1,70 @@
+package com.ecommerce.product_service.consumer;
+
+import com.ecommerce.common.event.EventContentTypes;
+import com.ecommerce.product_service.event.OrderEvent;
+import com.ecommerce.product_service.service.ProcessedEventService;
+import com.ecommerce.product_service.service.ProductService;
+import com.ecommerce.product_service.service.StockChangeStriper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderEventConsumerTests {
+
+	private final StockChangeStriper stockChangeStriper = mock(StockChangeStriper.class);
+	private final ProcessedEventService processedEventService = mock(ProcessedEventService.class);
+	private final OrderEventConsumer consumer =
+			new OrderEventConsumer(stockChangeStriper, processedEventService, new SimpleMeterRegistry());
+
+	@Test
+	void aFailedStripeFailsTheBatchFromTheRecordOfItsFirstChange() {
+		ConsumerRecord<String, OrderEvent> duplicate = record(0, OrderEvent.ORDER_CREATED);
+		when(processedEventService.isRecentlyProcessed(eventId(duplicate))).thenReturn(true);
+		List<ConsumerRecord<String, OrderEvent>> records = List.of(
+				duplicate,
+				record(1, OrderEvent.ORDER_CREATED),
+				record(2, "ORDER_SHIPPED"),
+				record(3, OrderEvent.ORDER_CANCELLED),
+				record(4, OrderEvent.ORDER_CREATED));
+		IllegalStateException failure = new IllegalStateException("stripe failed");
+		// Changes: records 1, 3 and 4, the second one's stripe failed
+		when(stockChangeStriper.apply(anyList())).thenThrow(new StockChangeStriper.StripeFailedException(1, failure));
+
+		assertThatThrownBy(() -> consumer.consumeOrderEvents(records))
+				.isInstanceOfSatisfying(BatchListenerFailedException.class, e -> {
+					assertThat(e.getIndex()).isEqualTo(3);
+					assertThat(e.getCause()).isSameAs(failure);
+				});
+	}
+
+	@Test
+	void returnsWhenEveryStripeIsApplied() {
+		when(stockChangeStriper.apply(anyList())).thenReturn(List.of());
+
+		consumer.consumeOrderEvents(List.of(record(0, OrderEvent.ORDER_CREATED), record(1, OrderEvent.ORDER_CREATED)));
+	}
+
+	private static ConsumerRecord<String, OrderEvent> record(long offset, String eventType) {
+		ConsumerRecord<String, OrderEvent> record = new ConsumerRecord<>("order-events", 0, offset, null,
+				new OrderEvent(offset, "ORD-" + offset, eventType, List.of(new OrderEvent.Item(offset, 1))));
+		record.headers().add(EventContentTypes.EVENT_ID_HEADER,
+				UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+		return record;
+	}
+
+	private static UUID eventId(ConsumerRecord<String, OrderEvent> record) {
+		return UUID.fromString(new String(record.headers().lastHeader(EventContentTypes.EVENT_ID_HEADER).value(),
+				StandardCharsets.UTF_8));
+	}
+}
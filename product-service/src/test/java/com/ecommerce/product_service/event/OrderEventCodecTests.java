@@ -0,0 +1,52 @@
+package com.ecommerce.product_service.event;
+
+import com.ecommerce.common.event.BinaryEventWriter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventCodecTests {
+
+	// What order-service's OrderEventCodec writes, see its OrderEventCodecTests
+	static final String ENCODED = "085412114f52442d30303030303030303030303031180e220304176d2a0750454e44494e47"
+			+ "320931204d61696e205374388ccdc8a38dac9506420a08c80110041a030407cf420a08ca0110021a030407cf"
+			+ "4a0d4f524445525f435245415445445080d6c2a48dac9506";
+
+	private static final OrderEvent ORDER_CREATED = new OrderEvent(42L, "ORD-0000000000001", "ORDER_CREATED",
+			List.of(new OrderEvent.Item(100L, 2), new OrderEvent.Item(101L, 1)));
+
+	@Test
+	void readsOrderServiceEvents() {
+		assertThat(OrderEventCodec.decode(HexFormat.of().parseHex(ENCODED))).isEqualTo(ORDER_CREATED);
+	}
+
+	@Test
+	void skipsFieldsAddedByNewerWriters() {
+		byte[] data = new BinaryEventWriter(64)
+				.writeLong(1, 42L)
+				.writeString(11, "a field from a newer schema")
+				.writeString(2, "ORD-0000000000001")
+				.writeMessage(8, new BinaryEventWriter(16).writeLong(1, 100L).writeString(4, "Mug").writeInt(2, 2))
+				.writeMessage(8, new BinaryEventWriter(16).writeLong(1, 101L).writeInt(2, 1).writeLong(9, 5L))
+				.writeString(9, "ORDER_CREATED")
+				.writeMessage(12, new BinaryEventWriter(8).writeLong(1, 1L))
+				.toByteArray();
+
+		assertThat(OrderEventCodec.decode(data)).isEqualTo(ORDER_CREATED);
+	}
+
+	@Test
+	void rejectsTruncatedEvents() {
+		byte[] encoded = HexFormat.of().parseHex(ENCODED);
+
+		// Cut inside the second item
+		assertThatThrownBy(() -> OrderEventCodec.decode(Arrays.copyOf(encoded, 80)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Malformed binary event");
+	}
+}
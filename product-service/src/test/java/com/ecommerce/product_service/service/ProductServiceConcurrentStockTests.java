@@ -0,0 +1,171 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.product_service.TestcontainersConfiguration;
+import com.ecommerce.product_service.client.OrderServiceClient;
+import com.ecommerce.product_service.dto.ProductBatchRequest;
+import com.ecommerce.product_service.entity.Product;
+import com.ecommerce.product_service.exception.InsufficientStockException;
+import com.ecommerce.product_service.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Concurrent orders for the same products, each in its own transaction: the conditional decrements
+// never oversell and lose no update, lines in any order don't deadlock.
+// Not rolled back, every test has its own products
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TestcontainersConfiguration.class, ProductService.class, ProcessedEventService.class,
+		StockReservationService.class, StockBucketService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceConcurrentStockTests {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@MockitoBean
+	private OrderServiceClient orderServiceClient;
+
+	@MockitoBean
+	private KafkaProducerService kafkaProducerService;
+
+	@Test
+	void concurrentReductionsOfOneProductNeverOversell() throws Exception {
+		Long productId = createProduct(50);
+
+		// 80 orders of one unit for 50 units
+		List<Boolean> results = runConcurrently(THREADS, 5, () -> {
+			try {
+				productService.reduceStock(productId, 1);
+				return true;
+			} catch (InsufficientStockException e) {
+				return false;
+			}
+		});
+
+		assertThat(results).filteredOn(Boolean::booleanValue).hasSize(50);
+		Product product = product(productId);
+		assertThat(product.getStockQuantity()).isZero();
+		assertThat(product.getStatus()).isEqualTo(Product.ProductStatus.OUT_OF_STOCK);
+	}
+
+	@Test
+	void concurrentReductionsAndRestoresLoseNoUpdate() throws Exception {
+		Long productId = createProduct(1000);
+
+		// Every other order takes 3 units, the others return 2
+		AtomicInteger next = new AtomicInteger();
+		List<Boolean> results = runConcurrently(THREADS, 20, () -> {
+			if (next.getAndIncrement() % 2 == 0) {
+				productService.reduceStock(productId, 3);
+			} else {
+				productService.restoreStock(productId, 2);
+			}
+			return true;
+		});
+
+		assertThat(results).hasSize(THREADS * 20);
+		assertThat(product(productId).getStockQuantity()).isEqualTo(1000 - 160 * 3 + 160 * 2);
+	}
+
+	@Test
+	void concurrentOrdersWithLinesInOppositeOrderDontDeadlock() throws Exception {
+		Long first = createProduct(1000);
+		Long second = createProduct(1000);
+		AtomicInteger next = new AtomicInteger();
+
+		// Straight to the statement too: it locks in id order whatever the order of the lines
+		List<Boolean> results = runConcurrently(THREADS, 10, () -> {
+			int n = next.getAndIncrement();
+			Long[] productIds = n % 2 == 0 ? new Long[]{second, first} : new Long[]{first, second};
+			if (n % 3 == 0) {
+				return transactionTemplate.execute(status ->
+						productRepository.decrementStock(productIds, new Integer[]{1, 1}).size() == 2);
+			}
+			productService.reduceStock(new ProductBatchRequest(List.of(item(productIds[0]), item(productIds[1]))));
+			return true;
+		});
+
+		assertThat(results).hasSize(THREADS * 10).containsOnly(true);
+		assertThat(product(first).getStockQuantity()).isEqualTo(1000 - THREADS * 10);
+		assertThat(product(second).getStockQuantity()).isEqualTo(1000 - THREADS * 10);
+	}
+
+	// Every thread calls the order `orders` times, all threads start together. A failed call fails the test
+	private static List<Boolean> runConcurrently(int threads, int orders, Callable<Boolean> order) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<List<Boolean>>> pending = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				pending.add(executor.submit(() -> {
+					if (!start.await(30, TimeUnit.SECONDS)) {
+						throw new IllegalStateException("Timed out waiting");
+					}
+					List<Boolean> results = new ArrayList<>();
+					for (int n = 0; n < orders; n++) {
+						results.add(order.call());
+					}
+					return results;
+				}));
+			}
+			start.countDown();
+			List<Boolean> results = new ArrayList<>();
+			for (Future<List<Boolean>> thread : pending) {
+				results.addAll(thread.get(60, TimeUnit.SECONDS));
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static ProductBatchRequest.Item item(Long productId) {
+		return ProductBatchRequest.Item.builder().productId(productId).quantity(1).build();
+	}
+
+	private Long createProduct(int stock) {
+		return productRepository.save(Product.builder()
+				.name("Keyboard")
+				.price(new BigDecimal("49.00"))
+				.stockQuantity(stock)
+				.skuCode("SKU-" + UUID.randomUUID())
+				.status(Product.ProductStatus.ACTIVE)
+				.build()).getId();
+	}
+
+	private Product product(Long productId) {
+		return productRepository.findById(productId).orElseThrow();
+	}
+}
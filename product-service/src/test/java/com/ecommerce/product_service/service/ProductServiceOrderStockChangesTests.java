@@ -0,0 +1,125 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.product_service.TestcontainersConfiguration;
+import com.ecommerce.product_service.client.OrderServiceClient;
+import com.ecommerce.product_service.entity.Product;
+import com.ecommerce.product_service.repository.ProductRepository;
+import com.ecommerce.product_service.repository.StockReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A batch's changes are netted per product, a rejected net change falls back to the events one by one
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TestcontainersConfiguration.class, ProductService.class, ProcessedEventService.class,
+		StockReservationService.class, StockBucketService.class, SimpleMeterRegistry.class})
+class ProductServiceOrderStockChangesTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProcessedEventService processedEventService;
+
+	@Autowired
+	private StockReservationService stockReservationService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockReservationRepository stockReservationRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@MockitoBean
+	private OrderServiceClient orderServiceClient;
+
+	@MockitoBean
+	private KafkaProducerService kafkaProducerService;
+
+	private Long productId;
+
+	@BeforeEach
+	void setUp() {
+		productId = productRepository.save(Product.builder()
+				.name("Keyboard")
+				.price(new BigDecimal("49.00"))
+				.stockQuantity(2)
+				.skuCode("SKU-" + UUID.randomUUID())
+				.status(Product.ProductStatus.ACTIVE)
+				.build()).getId();
+		entityManager.flush();
+	}
+
+	@Test
+	void restoreIsAppliedWhenAnOversizedDecrementOfTheSameProductIsRejected() {
+		stockReservationService.reserve("ORD-B", Map.of(productId, 1));
+		List<ProductService.OrderStockChange> batch = List.of(
+				change("ORD-A", 3),
+				change("ORD-B", -4),
+				change("ORD-C", -10));
+
+		List<Long> rejected = productService.applyOrderStockChanges(batch);
+
+		// 2 + 3 - 4, ORD-B only fits after ORD-A's restore
+		assertThat(rejected).containsExactly(productId);
+		assertThat(stock()).isEqualTo(1);
+		// Rejected ORD-C is processed all the same, its redelivery changes nothing
+		assertThat(processedEventService.findProcessed(batch.stream().map(ProductService.OrderStockChange::eventId).toList()))
+				.hasSize(3);
+		assertThat(stockReservationRepository.findExpiresAt("ORD-B")).isEmpty();
+
+		assertThat(productService.applyOrderStockChanges(batch)).isEmpty();
+		assertThat(stock()).isEqualTo(1);
+	}
+
+	@Test
+	void netChangeIsAppliedInOneUpdate() {
+		// -3 alone wouldn't fit, the batch's net -1 does
+		List<Long> rejected = productService.applyOrderStockChanges(List.of(
+				change("ORD-A", -3),
+				change("ORD-B", 2)));
+
+		assertThat(rejected).isEmpty();
+		assertThat(stock()).isEqualTo(1);
+	}
+
+	@Test
+	void unknownProductIsRejectedPerEvent() {
+		List<Long> rejected = productService.applyOrderStockChanges(List.of(
+				new ProductService.OrderStockChange(UUID.randomUUID(), "ORD-A", Map.of(-1L, 1, productId, -1)),
+				new ProductService.OrderStockChange(UUID.randomUUID(), "ORD-B", Map.of(-1L, 2))));
+
+		// One per event, the other product's change goes through
+		assertThat(rejected).containsExactly(-1L, -1L);
+		assertThat(stock()).isEqualTo(1);
+	}
+
+	private ProductService.OrderStockChange change(String orderNumber, int delta) {
+		return new ProductService.OrderStockChange(UUID.randomUUID(), orderNumber, Map.of(productId, delta));
+	}
+
+	private int stock() {
+		entityManager.flush();
+		entityManager.clear();
+		return productRepository.findById(productId).orElseThrow().getTotalStock();
+	}
+}
@@ -0,0 +1,302 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.product_service.TestcontainersConfiguration;
+import com.ecommerce.product_service.entity.Product;
+import com.ecommerce.product_service.entity.ProductStockBucket;
+import com.ecommerce.product_service.repository.ProductRepository;
+import com.ecommerce.product_service.repository.ProductStockBucketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Split stock on PostgreSQL: the bucket statements, the rebalance, and both under concurrent orders.
+// Not rolled back, every change commits as in production and every test has its own product
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TestcontainersConfiguration.class, StockBucketService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockBucketServiceTests {
+
+	@Autowired
+	private StockBucketService stockBucketService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductStockBucketRepository productStockBucketRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void splitSpreadsTheStockEvenly() {
+		Long productId = splitProduct(10, 4);
+
+		assertThat(buckets(productId)).containsExactly(3, 3, 2, 2);
+		assertThat(product(productId).getStockQuantity()).isZero();
+		assertThat(product(productId).getTotalStock()).isEqualTo(10);
+	}
+
+	@Test
+	void takeFitsInOneBucket() {
+		Long productId = splitProduct(10, 4);
+
+		assertThat(take(productId, 2)).isTrue();
+
+		// Exactly one bucket gave the units
+		List<Integer> buckets = buckets(productId);
+		assertThat(buckets).containsAnyOf(1, 0);
+		assertThat(buckets.stream().mapToInt(Integer::intValue).sum()).isEqualTo(8);
+	}
+
+	@Test
+	void takeLargerThanAnyBucketSpansBucketsInBucketOrder() {
+		Long productId = splitProduct(10, 4);
+
+		assertThat(take(productId, 7)).isTrue();
+
+		// 3 + 3 + 1, from the first buckets on
+		assertThat(buckets(productId)).containsExactly(0, 0, 1, 2);
+	}
+
+	@Test
+	void takeLargerThanTheTotalIsRejectedAndChangesNothing() {
+		Long productId = splitProduct(10, 4);
+
+		assertThat(take(productId, 11)).isFalse();
+
+		assertThat(buckets(productId)).containsExactly(3, 3, 2, 2);
+	}
+
+	@Test
+	void takingTheLastUnitsMarksTheProductOutOfStock() {
+		Long productId = splitProduct(4, 2);
+
+		assertThat(take(productId, 4)).isTrue();
+		assertThat(product(productId).getStatus()).isEqualTo(Product.ProductStatus.OUT_OF_STOCK);
+
+		assertThat(apply(productId, 3)).isTrue();
+		assertThat(product(productId).getStatus()).isEqualTo(Product.ProductStatus.ACTIVE);
+	}
+
+	@Test
+	void returnedUnitsGoToOneBucket() {
+		Long productId = splitProduct(8, 4);
+
+		assertThat(apply(productId, 5)).isTrue();
+
+		assertThat(buckets(productId)).containsOnlyOnce(7).containsOnly(2, 7);
+	}
+
+	@Test
+	void returnedUnitsOfAProductThatIsNotSplitAreNotBucketed() {
+		Long productId = createProduct(8);
+
+		Integer bucketed = transactionTemplate.execute(status -> productStockBucketRepository.addToRandomBucket(productId, 5));
+
+		assertThat(bucketed).isZero();
+		assertThat(apply(productId, 5)).isTrue();
+		assertThat(product(productId).getStockQuantity()).isEqualTo(13);
+	}
+
+	@Test
+	void rebalanceEvensOutDriftedBuckets() {
+		Long productId = splitProduct(40, 4);
+		jdbcTemplate.update("UPDATE product_stock_buckets SET quantity = CASE bucket WHEN 0 THEN 25 ELSE 5 END " +
+				"WHERE product_id = ?", productId);
+
+		stockBucketService.rebalance();
+
+		assertThat(buckets(productId)).containsExactly(10, 10, 10, 10);
+	}
+
+	@Test
+	void rebalanceCorrectsAStatusMissedByConcurrentOrders() {
+		Long productId = splitProduct(4, 2);
+		jdbcTemplate.update("UPDATE product_stock_buckets SET quantity = 0 WHERE product_id = ?", productId);
+
+		stockBucketService.rebalance();
+
+		assertThat(product(productId).getStatus()).isEqualTo(Product.ProductStatus.OUT_OF_STOCK);
+	}
+
+	@Test
+	void rebalanceWaitsForATakeInProgress() throws Exception {
+		Long productId = splitProduct(40, 4);
+		jdbcTemplate.update("UPDATE product_stock_buckets SET quantity = CASE bucket WHEN 0 THEN 25 ELSE 5 END " +
+				"WHERE product_id = ?", productId);
+		CountDownLatch taken = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Boolean> order = executor.submit(() -> transactionTemplate.execute(status -> {
+				boolean applied = stockBucketService.takeFromBuckets(productId, 20);
+				taken.countDown();
+				await(commit);
+				return applied;
+			}));
+			assertThat(taken.await(10, TimeUnit.SECONDS)).isTrue();
+
+			Future<?> rebalance = executor.submit(stockBucketService::rebalance);
+			// Blocked on the bucket the order holds
+			assertThatThrownBy(() -> rebalance.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+			commit.countDown();
+			assertThat(order.get(10, TimeUnit.SECONDS)).isTrue();
+			rebalance.get(10, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// Spread out after the order's 20 units were gone, none counted twice
+		assertThat(buckets(productId)).containsExactly(5, 5, 5, 5);
+	}
+
+	@Test
+	void takeWaitsForABusyBucketWhenAllAreLocked() throws Exception {
+		Long productId = splitProduct(10, 2);
+		CountDownLatch taken = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// Spans both buckets and holds them: 5, 5 -> 0, 4
+			Future<Boolean> first = executor.submit(() -> transactionTemplate.execute(status -> {
+				boolean applied = stockBucketService.takeFromBuckets(productId, 6);
+				taken.countDown();
+				await(commit);
+				return applied;
+			}));
+			assertThat(taken.await(10, TimeUnit.SECONDS)).isTrue();
+
+			Future<Boolean> second = executor.submit(() -> take(productId, 1));
+			assertThatThrownBy(() -> second.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+			commit.countDown();
+			assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+			// Rechecked after the wait: not from the emptied bucket
+			assertThat(second.get(10, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(buckets(productId)).containsExactly(0, 3);
+	}
+
+	@Test
+	void concurrentOrdersAndRebalancesLoseNoUnits() throws Exception {
+		Long productId = splitProduct(40, 4);
+		int threads = 8;
+		int ordersPerThread = 4;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		try {
+			List<Future<Integer>> orders = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				orders.add(executor.submit(() -> {
+					await(start);
+					int applied = 0;
+					for (int order = 0; order < ordersPerThread; order++) {
+						if (take(productId, 1)) {
+							applied++;
+						}
+					}
+					return applied;
+				}));
+			}
+			Future<?> rebalances = executor.submit(() -> {
+				await(start);
+				while (orders.stream().anyMatch(order -> !order.isDone())) {
+					stockBucketService.rebalance();
+				}
+			});
+
+			start.countDown();
+			int applied = 0;
+			for (Future<Integer> order : orders) {
+				applied += order.get(60, TimeUnit.SECONDS);
+			}
+			rebalances.get(60, TimeUnit.SECONDS);
+
+			assertThat(applied).isEqualTo(threads * ordersPerThread);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		List<Integer> buckets = buckets(productId);
+		assertThat(buckets).allSatisfy(quantity -> assertThat(quantity).isNotNegative());
+		assertThat(buckets.stream().mapToInt(Integer::intValue).sum()).isEqualTo(40 - threads * ordersPerThread);
+	}
+
+	private boolean take(Long productId, int quantity) {
+		return apply(productId, -quantity);
+	}
+
+	private boolean apply(Long productId, int delta) {
+		return Boolean.TRUE.equals(transactionTemplate.execute(status -> stockBucketService.applyStockDelta(productId, delta)));
+	}
+
+	private Long splitProduct(int stock, int buckets) {
+		Long productId = createProduct(stock);
+		stockBucketService.split(productId, buckets);
+		return productId;
+	}
+
+	private Long createProduct(int stock) {
+		return productRepository.save(Product.builder()
+				.name("Keyboard")
+				.price(new BigDecimal("49.00"))
+				.stockQuantity(stock)
+				.skuCode("SKU-" + UUID.randomUUID())
+				.status(Product.ProductStatus.ACTIVE)
+				.build()).getId();
+	}
+
+	private Product product(Long productId) {
+		return productRepository.findById(productId).orElseThrow();
+	}
+
+	private List<Integer> buckets(Long productId) {
+		return productStockBucketRepository.findAll().stream()
+				.filter(bucket -> bucket.getProductId().equals(productId))
+				.sorted((a, b) -> a.getBucket().compareTo(b.getBucket()))
+				.map(ProductStockBucket::getQuantity)
+				.toList();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(30, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Timed out waiting");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
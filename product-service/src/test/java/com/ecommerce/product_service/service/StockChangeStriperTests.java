@@ -0,0 +1,220 @@
+package com.ecommerce.product_service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockChangeStriperTests {
+
+	private final ProductService productService = mock(ProductService.class);
+	// Each list handed to applyOrderStockChanges, one per transaction
+	private final List<List<ProductService.OrderStockChange>> transactions = Collections.synchronizedList(new ArrayList<>());
+
+	private StockChangeStriper striper;
+
+	@AfterEach
+	void shutdown() {
+		striper.shutdown();
+	}
+
+	@Test
+	void eventsSharingAProductLandInTheSameStripeInTheirOrder() {
+		striper = striper(4);
+		// {1, 3, 4} share products 1 and 3, {2, 6} share 2, 5 is alone
+		List<ProductService.OrderStockChange> changes = List.of(
+				change(Map.of(1L, -1)),
+				change(Map.of(2L, -1)),
+				change(Map.of(1L, -1, 3L, -2)),
+				change(Map.of(3L, 1)),
+				change(Map.of(5L, -1)),
+				change(Map.of(2L, -2, 4L, -1)));
+
+		striper.apply(changes);
+
+		assertStriped(changes);
+		assertThat(stripeOf(changes.get(0))).isSameAs(stripeOf(changes.get(2))).isSameAs(stripeOf(changes.get(3)));
+		assertThat(stripeOf(changes.get(1))).isSameAs(stripeOf(changes.get(5)));
+	}
+
+	@Test
+	void randomBatchesKeepEveryProductInOneStripeInOrder() {
+		striper = striper(8);
+		Random random = new Random(3);
+		for (int batch = 0; batch < 50; batch++) {
+			transactions.clear();
+			List<ProductService.OrderStockChange> changes = new ArrayList<>();
+			for (int i = 0; i < 100; i++) {
+				Map<Long, Integer> deltas = new HashMap<>();
+				for (int items = 1 + random.nextInt(2); items > 0; items--) {
+					deltas.put((long) random.nextInt(500), -1 - random.nextInt(3));
+				}
+				changes.add(change(deltas));
+			}
+
+			striper.apply(changes);
+
+			assertStriped(changes);
+			assertThat(transactions).hasSize(8);
+		}
+	}
+
+	@Test
+	void parallelismOneAppliesTheBatchDirectly() {
+		striper = striper(1);
+		List<ProductService.OrderStockChange> changes = List.of(change(Map.of(1L, -1)), change(Map.of(2L, -1)));
+
+		striper.apply(changes);
+
+		assertThat(transactions).containsExactly(changes);
+	}
+
+	@Test
+	void aSingleChangeIsAppliedDirectly() {
+		striper = striper(4);
+		List<ProductService.OrderStockChange> changes = List.of(change(Map.of(1L, -1, 2L, -1)));
+
+		striper.apply(changes);
+
+		assertThat(transactions).containsExactly(changes);
+	}
+
+	@Test
+	void aBatchWithAnEventWithoutIdIsAppliedInOneTransaction() {
+		striper = striper(4);
+		List<ProductService.OrderStockChange> changes = List.of(
+				change(Map.of(1L, -1)),
+				new ProductService.OrderStockChange(null, "ORD-2", Map.of(2L, -1)),
+				change(Map.of(3L, -1)));
+
+		striper.apply(changes);
+
+		assertThat(transactions).containsExactly(changes);
+	}
+
+	@Test
+	void returnsTheRejectedProductsOfEveryStripe() {
+		striper = striper(4);
+		when(productService.applyOrderStockChanges(anyList())).thenAnswer(invocation -> {
+			List<ProductService.OrderStockChange> stripe = invocation.getArgument(0);
+			return stripe.stream().flatMap(change -> change.deltas().keySet().stream()).toList();
+		});
+		List<ProductService.OrderStockChange> changes = new ArrayList<>();
+		for (long productId = 1; productId <= 20; productId++) {
+			changes.add(change(Map.of(productId, -1)));
+		}
+
+		List<Long> rejected = striper.apply(changes);
+
+		assertThat(rejected).containsExactlyInAnyOrderElementsOf(
+				changes.stream().flatMap(change -> change.deltas().keySet().stream()).toList());
+	}
+
+	@Test
+	void aFailedStripeIsReportedOnceEveryOtherStripeIsDone() {
+		// Products 1 to 4 are in stripes 1, 2, 3, 0; the stripe of product 2 fails, that of 3 is slow
+		List<ProductService.OrderStockChange> changes = List.of(
+				change(Map.of(1L, -1)),
+				change(Map.of(2L, -1)),
+				change(Map.of(3L, -1)),
+				change(Map.of(4L, -1)),
+				change(Map.of(2L, 1)));
+		IllegalStateException failure = new IllegalStateException("stripe failed");
+		when(productService.applyOrderStockChanges(anyList())).thenAnswer(invocation -> {
+			List<ProductService.OrderStockChange> stripe = invocation.getArgument(0);
+			if (stripe.contains(changes.get(1))) {
+				throw failure;
+			}
+			if (stripe.contains(changes.get(2))) {
+				Thread.sleep(200);
+			}
+			transactions.add(stripe);
+			return List.of();
+		});
+
+		striper = new StockChangeStriper(productService, 4);
+
+		assertThatThrownBy(() -> striper.apply(changes))
+				.isInstanceOfSatisfying(StockChangeStriper.StripeFailedException.class, e -> {
+					assertThat(e.firstFailedChange()).isEqualTo(1);
+					assertThat(e.getCause()).isSameAs(failure);
+				});
+		assertThat(transactions).containsExactlyInAnyOrder(
+				List.of(changes.get(0)), List.of(changes.get(2)), List.of(changes.get(3)));
+	}
+
+	@Test
+	void theFirstFailedStripeInTheBatchIsReported() {
+		List<ProductService.OrderStockChange> changes = List.of(
+				change(Map.of(1L, -1)),
+				change(Map.of(2L, -1)),
+				change(Map.of(3L, -1)),
+				change(Map.of(4L, -1)));
+		when(productService.applyOrderStockChanges(anyList())).thenAnswer(invocation -> {
+			List<ProductService.OrderStockChange> stripe = invocation.getArgument(0);
+			if (stripe.contains(changes.get(0))) {
+				return List.of();
+			}
+			throw new IllegalStateException("stripe of " + stripe.get(0).reservationId() + " failed");
+		});
+
+		striper = new StockChangeStriper(productService, 4);
+
+		assertThatThrownBy(() -> striper.apply(changes))
+				.isInstanceOfSatisfying(StockChangeStriper.StripeFailedException.class, e -> {
+					assertThat(e.firstFailedChange()).isEqualTo(1);
+					assertThat(e.getCause()).hasMessageContaining(changes.get(1).reservationId());
+					assertThat(e.getSuppressed()).hasSize(2);
+				});
+	}
+
+	private StockChangeStriper striper(int parallelism) {
+		when(productService.applyOrderStockChanges(anyList())).thenAnswer(invocation -> {
+			transactions.add(invocation.getArgument(0));
+			return List.of();
+		});
+		return new StockChangeStriper(productService, parallelism);
+	}
+
+	// Every event applied exactly once, every product in one transaction, events in batch order
+	private void assertStriped(List<ProductService.OrderStockChange> changes) {
+		List<ProductService.OrderStockChange> applied = new ArrayList<>();
+		Map<Long, List<ProductService.OrderStockChange>> stripeOfProduct = new HashMap<>();
+		for (List<ProductService.OrderStockChange> stripe : transactions) {
+			assertThat(stripe).isNotEmpty();
+			List<Integer> positions = stripe.stream().map(changes::indexOf).toList();
+			assertThat(positions).isSorted();
+			for (ProductService.OrderStockChange change : stripe) {
+				for (Long productId : change.deltas().keySet()) {
+					assertThat(stripeOfProduct.computeIfAbsent(productId, id -> stripe))
+							.as("stripe of product %s", productId).isSameAs(stripe);
+				}
+			}
+			applied.addAll(stripe);
+		}
+		assertThat(applied).containsExactlyInAnyOrderElementsOf(changes);
+		assertThat(new HashSet<>(applied)).hasSameSizeAs(changes);
+	}
+
+	private List<ProductService.OrderStockChange> stripeOf(ProductService.OrderStockChange change) {
+		return transactions.stream().filter(stripe -> stripe.contains(change)).findFirst().orElseThrow();
+	}
+
+	private static ProductService.OrderStockChange change(Map<Long, Integer> deltas) {
+		UUID eventId = UUID.randomUUID();
+		return new ProductService.OrderStockChange(eventId, "ORD-" + eventId, deltas);
+	}
+}
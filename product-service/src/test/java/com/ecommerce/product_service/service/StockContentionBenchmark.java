@@ -0,0 +1,76 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.product_service.StockBenchmarkDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Orders per second for one hot product (StockBucketService.applyStockDelta on PostgreSQL, see
+// StockBenchmarkDatabase), every thread taking one unit of the same product per transaction.
+// buckets=0: the single products row, every order waits for the row lock of the one before it.
+// buckets=8: split stock, orders take from different bucket rows.
+// holdMillis: the rest of the order's transaction after the decrement, the lock is held meanwhile
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+public class StockContentionBenchmark {
+
+	private static final int STOCK = 1_000_000_000;
+
+	@Param({"0", "8"})
+	private int buckets;
+
+	@Param({"0", "5"})
+	private int holdMillis;
+
+	private StockBenchmarkDatabase database;
+	private StockBucketService stockBucketService;
+	private TransactionTemplate transactionTemplate;
+	private Long productId;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = StockBenchmarkDatabase.start();
+		stockBucketService = database.getBean(StockBucketService.class);
+		transactionTemplate = database.transactionTemplate();
+		productId = database.createProduct(STOCK, buckets);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.close();
+	}
+
+	@Benchmark
+	public Boolean takeOneUnit() {
+		return transactionTemplate.execute(status -> {
+			boolean applied = stockBucketService.applyStockDelta(productId, -1);
+			if (holdMillis > 0) {
+				try {
+					Thread.sleep(holdMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return applied;
+		});
+	}
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.product_service.service;
+
+import com.ecommerce.product_service.StockBenchmarkDatabase;
+import com.ecommerce.product_service.dto.StockReservationResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Latency of StockReservationService.reserve on PostgreSQL (StockBenchmarkDatabase): per line an advisory
+// lock and the available stock query, then one insert and the expiry read back, in one transaction.
+// sameProduct=true: every thread reserves the same products and waits on their advisory locks,
+// false: each thread has products of its own. Holds expire after 1s and stop counting, as in production
+// they end with ORDER_CREATED. reserveAndRelease adds the release of a failed order
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class StockReservationBenchmark {
+
+	private static final int STOCK = 1_000_000_000;
+
+	@Param({"1", "3"})
+	private int lines;
+
+	@Param({"false", "true"})
+	private boolean sameProduct;
+
+	private StockBenchmarkDatabase database;
+	private StockReservationService stockReservationService;
+	private Map<Long, Integer> sharedLines;
+
+	@State(Scope.Thread)
+	public static class Reservations {
+
+		private final String prefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+		private long next;
+		private Map<Long, Integer> lines;
+
+		@Setup(Level.Trial)
+		public void setUp(StockReservationBenchmark benchmark) {
+			lines = benchmark.sameProduct ? benchmark.sharedLines : benchmark.newLines();
+		}
+
+		String nextId() {
+			return prefix + next++;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = StockBenchmarkDatabase.start("--product.reservations.ttl=1s");
+		stockReservationService = database.getBean(StockReservationService.class);
+		sharedLines = newLines();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.close();
+	}
+
+	@Benchmark
+	public StockReservationResponse reserve(Reservations reservations) {
+		return stockReservationService.reserve(reservations.nextId(), reservations.lines);
+	}
+
+	@Benchmark
+	public StockReservationResponse reserveAndRelease(Reservations reservations) {
+		String reservationId = reservations.nextId();
+		StockReservationResponse response = stockReservationService.reserve(reservationId, reservations.lines);
+		stockReservationService.release(reservationId);
+		return response;
+	}
+
+	private synchronized Map<Long, Integer> newLines() {
+		Map<Long, Integer> products = new HashMap<>();
+		for (int i = 0; i < lines; i++) {
+			products.put(database.createProduct(STOCK, 0), 1);
+		}
+		return products;
+	}
+}
@@ -24,7 +24,7 @@ public class OrderServiceClient {
     @CircuitBreaker(name = "orderService", fallbackMethod = "hasActiveOrdersFallback")
     @Retry(name = "orderService")
     public boolean hasActiveOrders(Long userId) {
-        log.info("Checking if user {} has active orders via Order Service", userId);
+        log.debug("Checking if user {} has active orders via Order Service", userId);
 
         Boolean hasActive = webClient.get()
                 .uri("/api/orders/user/{userId}/has-active", userId)
@@ -36,7 +36,7 @@ public class OrderServiceClient {
                 .bodyToMono(Boolean.class)
                 .block();
 
-        log.info("User {} has active orders: {}", userId, hasActive);
+        log.debug("User {} has active orders: {}", userId, hasActive);
         return Boolean.TRUE.equals(hasActive);
     }
 
@@ -1,5 +1,6 @@
 package com.ecommerce.user_service.controller;
 
+import com.ecommerce.user_service.dto.CursorPage;
 import com.ecommerce.user_service.dto.UserRequest;
 import com.ecommerce.user_service.dto.UserResponse;
 import com.ecommerce.user_service.service.UserService;
@@ -9,8 +10,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -31,8 +30,10 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
+    public ResponseEntity<CursorPage<UserResponse>> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<UserResponse> users = userService.getAllUsers(after, size);
         return ResponseEntity.ok(users);
     }
 
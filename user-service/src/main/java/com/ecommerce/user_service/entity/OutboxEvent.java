@@ -0,0 +1,51 @@
+package com.ecommerce.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Event waiting to be relayed to Kafka, written in the same transaction as the user change
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false)
+    private String messageKey;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    // Sent as the event-id header, the same on every relay attempt
+    @Column(nullable = false)
+    private UUID eventId;
+
+    // Encoded event (JSON or binary, see contentType), sent as is
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.user_service.event;
+
+import com.ecommerce.common.event.BinaryEventWriter;
+
+import static com.ecommerce.common.event.UserEventFields.*;
+
+// Writes user events in the binary schema of UserEventFields (EventContentTypes.USER_EVENT_V1)
+public final class UserEventCodec {
+
+    private UserEventCodec() {
+    }
+
+    public static byte[] encode(UserEvent event) {
+        return new BinaryEventWriter(128)
+                .writeLong(USER_ID, event.getUserId())
+                .writeString(FIRST_NAME, event.getFirstName())
+                .writeString(LAST_NAME, event.getLastName())
+                .writeString(EMAIL, event.getEmail())
+                .writeString(PHONE, event.getPhone())
+                .writeString(ADDRESS, event.getAddress())
+                .writeString(STATUS, event.getStatus())
+                .writeTimestamp(CREATED_AT, event.getCreatedAt())
+                .writeString(EVENT_TYPE, event.getEventType())
+                .writeTimestamp(EVENT_TIMESTAMP, event.getEventTimestamp())
+                .toByteArray();
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.user_service.repository;
+
+import com.ecommerce.user_service.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // The outbox is relayed in partitions by message key, all events of an aggregate are in one of them.
+    // The expression is also the index of V4__outbox_relay_partitions.sql, keep both in line
+    int RELAY_PARTITIONS = 16;
+    String RELAY_PARTITION = "(hashtext(message_key) & 2147483647) % " + RELAY_PARTITIONS;
+
+    // Partitions with events waiting, an index-only scan
+    @Query(value = "SELECT DISTINCT " + RELAY_PARTITION + " FROM outbox_events", nativeQuery = true)
+    List<Integer> findPendingPartitions();
+
+    // One relay per partition at a time, across instances: a partition held by another instance is
+    // skipped (SKIP LOCKED on partitions, not rows: two relays sending the same aggregate's events would
+    // reorder them). Held until the batch commits or rolls back
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lock, :partition)", nativeQuery = true)
+    boolean tryLockPartition(@Param("lock") int lock, @Param("partition") int partition);
+
+    // Called under tryLockPartition. IDENTITY ids follow insert order: an aggregate's later event is
+    // inserted after its earlier one committed
+    @Query(value = "SELECT * FROM outbox_events WHERE " + RELAY_PARTITION + " = :partition " +
+            "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("partition") int partition, @Param("limit") int limit);
+}
@@ -1,9 +1,11 @@
 package com.ecommerce.user_service.repository;
 
 import com.ecommerce.user_service.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Keyset pages: primary key index
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
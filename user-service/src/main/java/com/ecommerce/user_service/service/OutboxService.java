@@ -0,0 +1,38 @@
+package com.ecommerce.user_service.service;
+
+import com.ecommerce.user_service.entity.OutboxEvent;
+import com.ecommerce.user_service.event.UserEvent;
+import com.ecommerce.user_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private static final String USER_TOPIC = "user-events";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventEncoder eventEncoder;
+
+    // Must join the caller's transaction: the event exists only if the user change commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueUserEvent(UserEvent event) {
+        log.debug("Queueing USER event: {} for user {}", event.getEventType(), event.getUserId());
+        EventEncoder.EncodedEvent encoded = eventEncoder.encode(event);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(USER_TOPIC)
+                .messageKey(event.getUserId().toString())
+                .eventType(event.getEventType())
+                .eventId(UUID.randomUUID())
+                .payload(encoded.payload())
+                .contentType(encoded.contentType())
+                .build());
+    }
+}
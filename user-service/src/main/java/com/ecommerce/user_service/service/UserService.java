@@ -1,6 +1,7 @@
 package com.ecommerce.user_service.service;
 
 import com.ecommerce.user_service.client.OrderServiceClient;
+import com.ecommerce.user_service.dto.CursorPage;
 import com.ecommerce.user_service.dto.UserRequest;
 import com.ecommerce.user_service.dto.UserResponse;
 import com.ecommerce.user_service.entity.User;
@@ -9,6 +10,7 @@ import com.ecommerce.user_service.exception.UserNotFoundException;
 import com.ecommerce.user_service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,7 +24,7 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
     private final OrderServiceClient orderServiceClient;
 
     public UserResponse createUser(UserRequest request) {
@@ -60,14 +62,14 @@ public class UserService {
                 .eventTimestamp(LocalDateTime.now())
                 .build();
 
-        kafkaProducerService.sendUserEvent(event);
+        outboxService.enqueueUserEvent(event);
 
         return UserResponse.fromEntity(savedUser);
     }
 
     @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        log.info("Fetching user with id: {}", id);
+        log.debug("Fetching user with id: {}", id);
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(id));
@@ -76,13 +78,13 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsers() {
-        log.info("Fetching all users");
+    public CursorPage<UserResponse> getAllUsers(Long after, int size) {
+        log.debug("Fetching users after id: {}", after);
 
-        return userRepository.findAll()
-                .stream()
-                .map(UserResponse::fromEntity)
-                .toList();
+        int pageSize = CursorPage.pageSize(size);
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.startAfter(after), Limit.of(pageSize + 1));
+        return CursorPage.of(users, pageSize, User::getId, UserResponse::fromEntity);
     }
 
     public UserResponse updateUser(Long id, UserRequest request) {
@@ -118,7 +120,7 @@ public class UserService {
                 .message("User profile updated: " + updatedUser.getEmail())
                 .eventTimestamp(LocalDateTime.now())
                 .build();
-        kafkaProducerService.sendUserEvent(event);
+        outboxService.enqueueUserEvent(event);
 
         return UserResponse.fromEntity(updatedUser);
     }
@@ -145,7 +147,7 @@ public class UserService {
                 .eventTimestamp(LocalDateTime.now())
                 .build();
 
-        kafkaProducerService.sendUserEvent(event);
+        outboxService.enqueueUserEvent(event);
         userRepository.deleteById(id);
         log.info("User deleted successfully");
     }
@@ -0,0 +1,3 @@
+-- Event id sent as the event-id header, consumers drop redelivered events by it
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS event_id UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE outbox_events ALTER COLUMN event_id DROP DEFAULT;
@@ -0,0 +1,4 @@
+-- The relay reads one partition (hash of the message key) at a time, in id order.
+-- Same expression as OutboxEventRepository.RELAY_PARTITION
+CREATE INDEX IF NOT EXISTS idx_outbox_events_relay_partition
+    ON outbox_events (((hashtext(message_key) & 2147483647) % 16), id);
@@ -0,0 +1,80 @@
+package com.ecommerce.user_service.event;
+
+import com.ecommerce.common.event.BinaryEventReader;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import static com.ecommerce.common.event.UserEventFields.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserEventCodecTests {
+
+	// order-service's and product-service's UserEventCodecTests decode these exact bytes
+	static final String ENCODED = "080e12034164611a084c6f76656c616365220f616461406578616d706c652e636f6d2a08"
+			+ "3535352d30313030320931204d61696e2053743a064143544956454080cdc8a38dac95064a0c555345525f55504441"
+			+ "5445445080d6c2a48dac9506";
+
+	@Test
+	void keepsTheWireFormat() {
+		assertThat(HexFormat.of().formatHex(UserEventCodec.encode(userUpdated()))).isEqualTo(ENCODED);
+	}
+
+	@Test
+	void writesEveryFieldUnderItsSchemaNumber() {
+		UserEvent event = userUpdated();
+
+		BinaryEventReader reader = new BinaryEventReader(UserEventCodec.encode(event));
+		UserEvent decoded = new UserEvent();
+		while (reader.next()) {
+			switch (reader.field()) {
+				case USER_ID -> decoded.setUserId(reader.readLong());
+				case FIRST_NAME -> decoded.setFirstName(reader.readString());
+				case LAST_NAME -> decoded.setLastName(reader.readString());
+				case EMAIL -> decoded.setEmail(reader.readString());
+				case PHONE -> decoded.setPhone(reader.readString());
+				case ADDRESS -> decoded.setAddress(reader.readString());
+				case STATUS -> decoded.setStatus(reader.readString());
+				case CREATED_AT -> decoded.setCreatedAt(reader.readTimestamp());
+				case EVENT_TYPE -> decoded.setEventType(reader.readString());
+				case EVENT_TIMESTAMP -> decoded.setEventTimestamp(reader.readTimestamp());
+				default -> throw new AssertionError("Unexpected field " + reader.field());
+			}
+		}
+
+		// The message is not sent
+		event.setMessage(null);
+		assertThat(decoded).isEqualTo(event);
+	}
+
+	@Test
+	void leavesOutNullFields() {
+		UserEvent deleted = UserEvent.builder().userId(7L).eventType("USER_DELETED").build();
+
+		BinaryEventReader reader = new BinaryEventReader(UserEventCodec.encode(deleted));
+		assertThat(reader.next()).isTrue();
+		assertThat(reader.field()).isEqualTo(USER_ID);
+		reader.skip();
+		assertThat(reader.next()).isTrue();
+		assertThat(reader.field()).isEqualTo(EVENT_TYPE);
+		reader.skip();
+		assertThat(reader.next()).isFalse();
+	}
+
+	private static UserEvent userUpdated() {
+		return UserEvent.builder()
+				.userId(7L)
+				.firstName("Ada")
+				.lastName("Lovelace")
+				.email("ada@example.com")
+				.phone("555-0100")
+				.address("1 Main St")
+				.status("ACTIVE")
+				.createdAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5))
+				.eventType("USER_UPDATED")
+				.message("User updated")
+				.eventTimestamp(LocalDateTime.of(2025, 1, 2, 3, 4, 6))
+				.build();
+	}
+}